@@ -16,21 +16,25 @@
 package org.jboss.fuse.forge.addon.commands;
 
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import javax.inject.Inject;
 
 import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.context.UIValidationContext;
 import org.jboss.forge.addon.ui.input.UIInput;
 import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.fuse.forge.addon.util.RegexOptimizer;
 
 /**
  * Base class for commands to add a RegEx.
+ * <p>
+ * The RegEx is compile checked and checked for shapes prone to catastrophic backtracking when validating,
+ * and appended expressions are merged with {@link RegexOptimizer} rather than grouped one after another.
  */
 public abstract class AbstractAddRegExCommand extends AbstractConfigElementCommand {
 
-    private static final Pattern GROUPED_REGEX = Pattern.compile("\\(.*\\)");
-
     @Inject
-    @WithAttributes(label = "Append RegEx", required = false, description = "Append regular expression as a new group to existing expression, true by default", defaultValue = "true")
+    @WithAttributes(label = "Append RegEx", required = false, description = "Append regular expression as an alternative to existing expression, true by default", defaultValue = "true")
     UIInput<Boolean> append;
 
     @Override
@@ -39,22 +43,33 @@ public abstract class AbstractAddRegExCommand extends AbstractConfigElementComma
         builder.add(append);
     }
 
-    String processRegexParam(String oldRegEx, UIInput<String> uiInput) {
-        String newRegex;
-        // handle append
-        if (shouldAppend() && oldRegEx != null) {
-            StringBuilder builder = new StringBuilder();
-            if (GROUPED_REGEX.matcher(oldRegEx).matches()) {
-                builder.append(oldRegEx);
-            } else {
-                builder.append('(').append(oldRegEx).append(')');
-            }
-            builder.append("|(").append(uiInput.getValue()).append(")");
-            newRegex = builder.toString();
-        } else {
-            newRegex = uiInput.getValue();
+    @Override
+    public void validate(UIValidationContext validator) {
+        super.validate(validator);
+
+        UIInput<String> regexInput = getRegexInput();
+        String regex = regexInput.getValue();
+        if (regex == null) {
+            return;
+        }
+        try {
+            Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            validator.addValidationError(regexInput, "Invalid regular expression: " + e.getDescription() + " near index " + e.getIndex());
+            return;
         }
-        return newRegex;
+        for (String risk : RegexOptimizer.findBacktrackingRisks(regex)) {
+            validator.addValidationWarning(regexInput, "Regular expression may backtrack catastrophically, " + risk);
+        }
+    }
+
+    /**
+     * Returns the input of the RegEx to add.
+     */
+    protected abstract UIInput<String> getRegexInput();
+
+    String processRegexParam(String oldRegEx, UIInput<String> uiInput) {
+        return ConfigOperations.appendRegex(oldRegEx, uiInput.getValue(), shouldAppend());
     }
 
     private boolean shouldAppend() {
@@ -96,7 +96,7 @@ public abstract class AbstractApiComponentCommand extends AbstractProjectCommand
         return null;
     }
 
-    ConfigurationElementBuilder createFromExisting(ConfigurationElement element) {
+    static ConfigurationElementBuilder createFromExisting(ConfigurationElement element) {
         if (element instanceof ConfigurationElementBuilder) {
             // avoid creating an out of sync in memory wrapper
             return (ConfigurationElementBuilder) element;
@@ -105,13 +105,13 @@ public abstract class AbstractApiComponentCommand extends AbstractProjectCommand
         }
     }
 
-    ConfigurationElementBuilder getOrCreateChild(ConfigurationElement parent, String child) {
+    static ConfigurationElementBuilder getOrCreateChild(ConfigurationElement parent, String child) {
         return parent.hasChildByName(child, true) ?
             createFromExisting(parent.getChildByName(child, true))
             : createFromExisting(parent).createConfigurationElement(child);
     }
 
-    ConfigurationElementBuilder getOrCreateChild(ConfigurationBuilder configurationBuilder, String child) {
+    static ConfigurationElementBuilder getOrCreateChild(ConfigurationBuilder configurationBuilder, String child) {
         ConfigurationElementBuilder result;
         if (configurationBuilder.hasConfigurationElement(child)) {
             result = createFromExisting(configurationBuilder.getConfigurationElement(child));
@@ -15,28 +15,29 @@
  */
 package org.jboss.fuse.forge.addon.commands;
 
-import java.util.ArrayList;
+import java.io.File;
 import java.util.List;
+import javax.inject.Inject;
 
 import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
 import org.jboss.forge.addon.maven.plugins.Configuration;
 import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
-import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
-import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
 import org.jboss.forge.addon.maven.plugins.Execution;
 import org.jboss.forge.addon.maven.plugins.MavenPlugin;
 import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
-import org.jboss.forge.addon.maven.plugins.PluginElement;
+import org.jboss.forge.addon.maven.projects.MavenFacet;
 import org.jboss.forge.addon.maven.projects.MavenPluginFacet;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.ui.context.UIContext;
-import org.jboss.forge.addon.ui.input.UIInput;
 
 /**
  * Base class for API Component configuration commands.
  */
 public abstract class AbstractConfigCommand extends AbstractApiComponentCommand {
 
+    @Inject
+    private PluginConfigurationCache pluginConfigurationCache;
+
     @Override
     public boolean isEnabled(UIContext context) {
         Project project = getSelectedProjectOrNull(context);
@@ -45,19 +46,9 @@ public abstract class AbstractConfigCommand extends AbstractApiComponentCommand
         return project != null && isCamelComponentProject(project);
     }
 
-    List<ConfigurationElement> getApiElements(ConfigurationElement apis) {
-        List<ConfigurationElement> apiNames = new ArrayList<>();
-        for (PluginElement element : apis.getChildren()) {
-            ConfigurationElement child = (ConfigurationElement) element;
-            if ("api".equals(child.getName()) && child.hasChildByName("apiName", true)) {
-                apiNames.add(child);
-            }
-        }
-        return apiNames;
-    }
-
-    ConfigurationElementBuilder getElementBuilder(ConfigurationBuilder configurationBuilder) {
-        return getOrCreateChild(configurationBuilder, "apis");
+    ApiConfiguration getApiConfiguration(Project project) {
+        MavenPluginBuilder pluginBuilder = getPluginBuilder(project);
+        return new ApiConfiguration(pluginBuilder, getConfigurationBuilder(pluginBuilder));
     }
 
     ConfigurationBuilder getConfigurationBuilder(MavenPluginBuilder mavenPlugin) {
@@ -67,8 +58,10 @@ public abstract class AbstractConfigCommand extends AbstractApiComponentCommand
     }
 
     MavenPluginBuilder getPluginBuilder(Project project) {
-        MavenPluginFacet mavenPluginFacet = project.getFacet(MavenPluginFacet.class);
-        MavenPlugin plugin = mavenPluginFacet.getPlugin(CoordinateBuilder.create("org.apache.camel:camel-api-component-maven-plugin"));
+        MavenPlugin plugin = pluginConfigurationCache.get(getPom(project), () -> {
+            MavenPluginFacet mavenPluginFacet = project.getFacet(MavenPluginFacet.class);
+            return mavenPluginFacet.getPlugin(CoordinateBuilder.create("org.apache.camel:camel-api-component-maven-plugin"));
+        });
         return getPluginBuilderFromPlugin(plugin);
     }
 
@@ -81,34 +74,20 @@ public abstract class AbstractConfigCommand extends AbstractApiComponentCommand
         return pluginBuilder;
     }
 
-    ConfigurationElementBuilder getConfigElementBuilder(ConfigurationElement apis, String configElement, UIInput<String> apiName) {
-
-        ConfigurationElementBuilder parentElement = null;
-        List<ConfigurationElement> apiElements = getApiElements(apis);
-        for (ConfigurationElement api : apiElements) {
-            if (apiName.getValue().equals(api.getChildByName("apiName", true).getText())) {
-                parentElement = getOrCreateChild(api, configElement);
-            }
-        }
-
-        return parentElement;
+    void updatePlugin(Project project, ApiConfiguration configuration) {
+        updatePlugin(project, configuration.getPluginBuilder());
     }
 
     void updatePlugin(Project project, MavenPluginBuilder pluginBuilder) {
-        project.getFacet(MavenPluginFacet.class).updatePlugin(pluginBuilder);
-    }
-
-    protected ConfigurationElementBuilder getApiElement(String name, ConfigurationElement apis) {
-        List<ConfigurationElement> apiElements = getApiElements(apis);
-        for (ConfigurationElement apiElement : apiElements) {
-            if (name.equals(apiElement.getChildByName("apiName").getText())) {
-                return createFromExisting(apiElement);
-            }
+        try {
+            project.getFacet(MavenPluginFacet.class).updatePlugin(pluginBuilder);
+        } finally {
+            // read back on the next lookup, the POM may not hold exactly what was built
+            pluginConfigurationCache.invalidate(getPom(project));
         }
-        return null;
     }
 
-    protected List<ConfigurationElement> getApiElements(Project project) {
-        return getApiElements(getElementBuilder(getConfigurationBuilder(getPluginBuilder(project))));
+    private File getPom(Project project) {
+        return project.getFacet(MavenFacet.class).getModelResource().getUnderlyingResourceObject();
     }
 }
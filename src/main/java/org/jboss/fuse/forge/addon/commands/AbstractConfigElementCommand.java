@@ -15,13 +15,10 @@
  */
 package org.jboss.fuse.forge.addon.commands;
 
+import java.util.regex.PatternSyntaxException;
 import javax.inject.Inject;
 
-import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
-import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
 import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
-import org.jboss.forge.addon.maven.plugins.ExecutionBuilder;
-import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -44,7 +41,7 @@ public abstract class AbstractConfigElementCommand extends AbstractConfigCommand
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
         Project project = getSelectedProject(builder.getUIContext());
-        apiName.setCompleter(new ApiNameCompleter(getApiElements(project)));
+        apiName.setCompleter(new ApiNameCompleter(getApiConfiguration(project).getApiNames()));
 
         builder.add(apiName);
     }
@@ -57,17 +54,23 @@ public abstract class AbstractConfigElementCommand extends AbstractConfigCommand
         // is apiName provided for non-global settings
 
         // get location to insert based on global flag
-        MavenPluginBuilder pluginBuilder = getPluginBuilder(project);
-        ConfigurationBuilder configurationBuilder = getConfigurationBuilder(pluginBuilder);
-        ConfigurationElementBuilder parentElement = getConfigElement(getConfigElementName(), pluginBuilder, configurationBuilder);
+        ApiConfiguration configuration = getApiConfiguration(project);
+        ConfigurationElementBuilder parentElement = getConfigElement(getConfigElementName(), configuration);
         if (parentElement == null) {
             return Results.fail("Missing API name " + apiName.getValue());
         }
 
-        Result result = doConfigure(parentElement);
+        Result result;
+        try {
+            result = doConfigure(parentElement);
+        } catch (PatternSyntaxException e) {
+            // the expression already in the POM may be invalid, the new one is checked when validating
+            return Results.fail("Invalid regular expression in the POM: " + e.getDescription() + " near index "
+                + e.getIndex() + " of " + e.getPattern());
+        }
         if (!(result instanceof Failed)) {
             // update plugin config
-            updatePlugin(project, pluginBuilder);
+            updatePlugin(project, configuration);
         }
         return result;
     }
@@ -76,19 +79,11 @@ public abstract class AbstractConfigElementCommand extends AbstractConfigCommand
 
     protected abstract Result doConfigure(ConfigurationElementBuilder configElement);
 
-    private ConfigurationElementBuilder getConfigElement(String elementName, MavenPluginBuilder pluginBuilder, ConfigurationBuilder configurationBuilder) {
-        ConfigurationElement apis = getElementBuilder(configurationBuilder);
-
-        ConfigurationElementBuilder parentElement;
+    private ConfigurationElementBuilder getConfigElement(String elementName, ApiConfiguration configuration) {
         if (isGlobal()) {
-            parentElement = getOrCreateChild(configurationBuilder, elementName);
-            // NOTE: this is needed to make sure the configuration builder updates the execution
-            // since configuration builders don't handle updating execution configurations correctly
-            ((ExecutionBuilder)pluginBuilder.listExecutions().get(0)).setConfig(configurationBuilder);
-        } else {
-            parentElement = getConfigElementBuilder(apis, elementName, apiName);
+            return configuration.getGlobalElement(elementName);
         }
-        return parentElement;
+        return configuration.getApiElement(apiName.getValue(), elementName);
     }
 
     private boolean isGlobal() {
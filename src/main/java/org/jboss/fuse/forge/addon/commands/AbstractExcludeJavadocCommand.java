@@ -42,6 +42,11 @@ public abstract class AbstractExcludeJavadocCommand extends AbstractAddRegExComm
         elementBuilder.setText(processRegexParam(elementBuilder.getText(), commandConfig.excludeInput));
     }
 
+    @Override
+    protected UIInput<String> getRegexInput() {
+        return getCommandConfig().excludeInput;
+    }
+
     protected abstract CommandConfig getCommandConfig();
 
     // command parameters required by this base class
@@ -60,9 +60,7 @@ public class AddAliasCommand extends AbstractConfigElementCommand {
     @Override
     protected Result doConfigure(ConfigurationElementBuilder configElement) {
         // add alias
-        ConfigurationElementBuilder alias = configElement.createConfigurationElement("alias");
-        getOrCreateChildWithContent(alias, "methodPattern", methodPattern);
-        getOrCreateChildWithContent(alias, "methodAlias", methodAlias);
+        ConfigOperations.addAlias(configElement, methodPattern.getValue(), methodAlias.getValue());
 
         return Results.success("Command 'Api Component: Add Alias' successfully executed!");
     }
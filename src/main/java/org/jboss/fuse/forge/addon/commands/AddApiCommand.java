@@ -15,14 +15,9 @@
  */
 package org.jboss.fuse.forge.addon.commands;
 
-import java.util.List;
 import javax.inject.Inject;
 
 import org.jboss.forge.addon.dependencies.DependencyResolver;
-import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
-import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
-import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
-import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
@@ -34,6 +29,8 @@ import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
+import org.jboss.fuse.forge.addon.completer.ClassHeader;
+import org.jboss.fuse.forge.addon.completer.ClassNameIndex;
 import org.jboss.fuse.forge.addon.completer.DependencyClassCompleter;
 
 public class AddApiCommand extends AbstractConfigCommand {
@@ -49,6 +46,9 @@ public class AddApiCommand extends AbstractConfigCommand {
     @Inject
     private DependencyResolver dependencyResolver;
 
+    @Inject
+    private ClassNameIndex classNameIndex;
+
 	@Override
 	public UICommandMetadata getMetadata(UIContext context) {
 		return Metadata.forCommand(AddApiCommand.class)
@@ -59,7 +59,7 @@ public class AddApiCommand extends AbstractConfigCommand {
 	@Override
 	public void initializeUI(UIBuilder builder) throws Exception {
         Project project = getSelectedProject(builder.getUIContext());
-        proxyClass.setCompleter(new DependencyClassCompleter(dependencyResolver, project));
+        proxyClass.setCompleter(new DependencyClassCompleter(dependencyResolver, classNameIndex, project, ClassHeader::isProxyCandidate));
         builder.add(apiName)
             .add(proxyClass);
 	}
@@ -70,30 +70,14 @@ public class AddApiCommand extends AbstractConfigCommand {
         String name = apiName.getValue();
 
         Project project = getSelectedProject(context);
-        MavenPluginBuilder pluginBuilder = getPluginBuilder(project);
-        ConfigurationBuilder configurationBuilder = getConfigurationBuilder(pluginBuilder);
-        ConfigurationElementBuilder apis = getElementBuilder(configurationBuilder);
+        ApiConfiguration configuration = getApiConfiguration(project);
 
-        if (isDuplicateName(name, apis)) {
+        if (configuration.addApi(name, proxyClass.getValue()) == null) {
             return Results.fail("Duplicate API name " + name);
         }
 
-        ConfigurationElementBuilder api = apis.createConfigurationElement("api");
-        api.createConfigurationElement("apiName").setText(name);
-        api.createConfigurationElement("proxyClass").setText(proxyClass.getValue());
-
-        updatePlugin(project, pluginBuilder);
+        updatePlugin(project, configuration);
 
         return Results.success("Command 'Api Component: Add Api' successfully executed!");
 	}
-
-    private boolean isDuplicateName(String name, ConfigurationElement apis) {
-        List<ConfigurationElement> apiElements = getApiElements(apis);
-        for (ConfigurationElement apiElement : apiElements) {
-            if (name.equals(apiElement.getChildByName("apiName").getText())) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
\ No newline at end of file
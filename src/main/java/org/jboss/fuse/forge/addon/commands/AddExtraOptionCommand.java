@@ -28,6 +28,8 @@ import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
+import org.jboss.fuse.forge.addon.completer.ClassHeader;
+import org.jboss.fuse.forge.addon.completer.ClassNameIndex;
 import org.jboss.fuse.forge.addon.completer.DependencyClassCompleter;
 
 public class AddExtraOptionCommand extends AbstractConfigElementCommand {
@@ -43,6 +45,9 @@ public class AddExtraOptionCommand extends AbstractConfigElementCommand {
     @Inject
     private DependencyResolver dependencyResolver;
 
+    @Inject
+    private ClassNameIndex classNameIndex;
+
     @Override
 	public UICommandMetadata getMetadata(UIContext context) {
 		return Metadata
@@ -54,7 +59,7 @@ public class AddExtraOptionCommand extends AbstractConfigElementCommand {
 	@Override
 	public void initializeUI(UIBuilder builder) throws Exception {
 		super.initializeUI(builder);
-        type.setCompleter(new DependencyClassCompleter(dependencyResolver, getSelectedProject(builder)));
+        type.setCompleter(new DependencyClassCompleter(dependencyResolver, classNameIndex, getSelectedProject(builder), ClassHeader::isPublicType));
 		builder.add(name)
 			.add(type);
 	}
@@ -67,15 +72,7 @@ public class AddExtraOptionCommand extends AbstractConfigElementCommand {
 	@Override
 	protected Result doConfigure(ConfigurationElementBuilder configElement) {
 		// add extra option
-		ConfigurationElementBuilder extraOption = configElement.createConfigurationElement("extraOption");
-        // type could have '<>' for generic types, so wrap with CDATA if needed
-        String typeValue = type.getValue();
-        // TODO this attempt to handle escaped XML characters fails, since re-parsing decodes it and barfs when re-writing
-        if (typeValue.indexOf('<') != -1) {
-            typeValue = "<![CDATA[" + typeValue + "]]>";
-        }
-        extraOption.createConfigurationElement("type").setText(typeValue);
-		extraOption.createConfigurationElement("name").setText(name.getValue());
+		ConfigOperations.addExtraOption(configElement, name.getValue(), type.getValue());
 
 		return Results.success("Command 'Api Component: Add Extra Option' successfully executed!");
 	}
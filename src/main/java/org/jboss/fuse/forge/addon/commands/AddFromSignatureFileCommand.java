@@ -17,9 +17,7 @@ package org.jboss.fuse.forge.addon.commands;
 
 import javax.inject.Inject;
 
-import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
 import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
-import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -42,7 +40,7 @@ public class AddFromSignatureFileCommand extends AbstractConfigCommand {
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
         Project project = getSelectedProject(builder.getUIContext());
-        apiName.setCompleter(new ApiNameCompleter(getApiElements(project)));
+        apiName.setCompleter(new ApiNameCompleter(getApiConfiguration(project).getApiNames()));
         builder.add(apiName)
             .add(fromSignatureFile);
     }
@@ -50,14 +48,15 @@ public class AddFromSignatureFileCommand extends AbstractConfigCommand {
     @Override
     public Result execute(UIExecutionContext context) throws Exception {
         Project project = getSelectedProject(context);
-        MavenPluginBuilder pluginBuilder = getPluginBuilder(project);
-        ConfigurationBuilder configurationBuilder = getConfigurationBuilder(pluginBuilder);
-        ConfigurationElementBuilder apis = getElementBuilder(configurationBuilder);
+        ApiConfiguration configuration = getApiConfiguration(project);
 
-        ConfigurationElementBuilder elementBuilder = getConfigElementBuilder(apis, "fromSignatureFile", apiName);
+        ConfigurationElementBuilder elementBuilder = configuration.getApiElement(apiName.getValue(), "fromSignatureFile");
+        if (elementBuilder == null) {
+            return Results.fail("Missing API name " + apiName.getValue());
+        }
         elementBuilder.setText(fromSignatureFile.getValue());
 
-        updatePlugin(project, pluginBuilder);
+        updatePlugin(project, configuration);
 
         return Results.success("Command 'Api Component: Add Config to Generate From Signature File' successfully executed!");
     }
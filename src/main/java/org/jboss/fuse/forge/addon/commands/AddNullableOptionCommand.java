@@ -56,7 +56,7 @@ public class AddNullableOptionCommand extends AbstractConfigElementCommand {
 	@Override
 	protected Result doConfigure(ConfigurationElementBuilder configElement) {
 		// add nullable option
-		getOrCreateChildWithContent(configElement, "nullableOption", nullableOption);
+		ConfigOperations.addNullableOption(configElement, nullableOption.getValue());
 		return Results.success("Command 'Api Component: Add Nullable Option' successfully executed!");
 	}
 }
\ No newline at end of file
@@ -76,12 +76,8 @@ public class AddSubstitutionCommand extends AbstractConfigElementCommand {
 	@Override
 	protected Result doConfigure(ConfigurationElementBuilder configElement) {
         // add substitution
-        ConfigurationElementBuilder substitution = configElement.createConfigurationElement("substitution");
-        getOrCreateChildWithContent(substitution, "method", method);
-        getOrCreateChildWithContent(substitution, "argName", argName);
-        getOrCreateChildIfNotNullContent(substitution, "argType", argType);
-        getOrCreateChildWithContent(substitution, "replacement", replacement);
-        getOrCreateChildIfNotNullContent(substitution, "replaceWithType", replaceWithType);
+        ConfigOperations.addSubstitution(configElement, method.getValue(), argName.getValue(), argType.getValue(),
+            replacement.getValue(), replaceWithType.getValue());
 
         return Results.success("Command 'Api Component: Add Substitution' successfully executed!");
 	}
@@ -0,0 +1,153 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
+import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
+import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
+import org.jboss.forge.addon.maven.plugins.ExecutionBuilder;
+import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
+import org.jboss.forge.addon.maven.plugins.PluginElement;
+
+import static org.jboss.fuse.forge.addon.commands.AbstractApiComponentCommand.createFromExisting;
+import static org.jboss.fuse.forge.addon.commands.AbstractApiComponentCommand.getOrCreateChild;
+
+/**
+ * Configuration of the camel-api-component-maven-plugin, with its {@code <api>} elements indexed by API name.
+ * <p>
+ * The index is built once when the configuration is read, and kept up to date as APIs are added and removed,
+ * so lookups by name do not walk the {@code <apis>} children. Changes are made to the plugin builder, which
+ * is written back to the POM with {@link AbstractConfigCommand#updatePlugin(org.jboss.forge.addon.projects.Project, ApiConfiguration)}.
+ */
+public class ApiConfiguration {
+
+    private final MavenPluginBuilder pluginBuilder;
+    private final ConfigurationBuilder configuration;
+    private final ConfigurationElementBuilder apis;
+    // all APIs of a name in configuration order, duplicate names are possible in hand edited POMs
+    private final Map<String, List<ConfigurationElementBuilder>> apisByName = new LinkedHashMap<>();
+    private final Map<String, Integer> proxyClassCounts = new HashMap<>();
+
+    ApiConfiguration(MavenPluginBuilder pluginBuilder, ConfigurationBuilder configuration) {
+        this.pluginBuilder = pluginBuilder;
+        this.configuration = configuration;
+        this.apis = getOrCreateChild(configuration, "apis");
+
+        for (PluginElement element : apis.getChildren()) {
+            ConfigurationElement child = (ConfigurationElement) element;
+            if ("api".equals(child.getName()) && child.hasChildByName("apiName", true)) {
+                apisByName.computeIfAbsent(child.getChildByName("apiName", true).getText(), key -> new ArrayList<>(1))
+                    .add(createFromExisting(child));
+                if (child.hasChildByName("proxyClass", true)) {
+                    proxyClassCounts.merge(child.getChildByName("proxyClass", true).getText(), 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    public MavenPluginBuilder getPluginBuilder() {
+        return pluginBuilder;
+    }
+
+    /**
+     * Returns the names of the configured APIs, in configuration order.
+     */
+    public Set<String> getApiNames() {
+        return Collections.unmodifiableSet(apisByName.keySet());
+    }
+
+    public boolean hasApi(String name) {
+        return apisByName.containsKey(name);
+    }
+
+    /**
+     * Returns whether an API uses the given proxy class.
+     */
+    public boolean hasProxyClass(String proxyClass) {
+        return proxyClassCounts.containsKey(proxyClass);
+    }
+
+    /**
+     * Returns the first {@code <api>} element of the given name, or null if there is none.
+     */
+    public ConfigurationElementBuilder getApi(String name) {
+        List<ConfigurationElementBuilder> named = apisByName.get(name);
+        return named == null ? null : named.get(0);
+    }
+
+    /**
+     * Adds an {@code <api>} element, or returns null if an API of that name already exists.
+     */
+    public ConfigurationElementBuilder addApi(String name, String proxyClass) {
+        if (apisByName.containsKey(name)) {
+            return null;
+        }
+        ConfigurationElementBuilder api = apis.createConfigurationElement("api");
+        api.createConfigurationElement("apiName").setText(name);
+        api.createConfigurationElement("proxyClass").setText(proxyClass);
+        apisByName.put(name, new ArrayList<>(Collections.singletonList(api)));
+        proxyClassCounts.merge(proxyClass, 1, Integer::sum);
+        return api;
+    }
+
+    /**
+     * Removes the first {@code <api>} element of the given name, returning false if there is none.
+     */
+    public boolean removeApi(String name) {
+        List<ConfigurationElementBuilder> named = apisByName.get(name);
+        if (named == null) {
+            return false;
+        }
+        ConfigurationElementBuilder api = named.remove(0);
+        if (named.isEmpty()) {
+            apisByName.remove(name);
+        }
+        api.getParentElement().getChildren().remove(api);
+        if (api.hasChildByName("proxyClass", true)) {
+            // dropped with the last API using it
+            proxyClassCounts.computeIfPresent(api.getChildByName("proxyClass", true).getText(), (key, count) -> count > 1 ? count - 1 : null);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the named child of the given API, created if missing, or null if there is no such API.
+     * Of several APIs with the same name, the child of the last one is edited, as the configuration commands always did.
+     */
+    public ConfigurationElementBuilder getApiElement(String name, String elementName) {
+        List<ConfigurationElementBuilder> named = apisByName.get(name);
+        return named == null ? null : getOrCreateChild(named.get(named.size() - 1), elementName);
+    }
+
+    /**
+     * Returns the named element of the global configuration, created if missing.
+     */
+    public ConfigurationElementBuilder getGlobalElement(String elementName) {
+        ConfigurationElementBuilder element = getOrCreateChild(configuration, elementName);
+        // NOTE: this is needed to make sure the configuration builder updates the execution
+        // since configuration builders don't handle updating execution configurations correctly
+        ((ExecutionBuilder) pluginBuilder.listExecutions().get(0)).setConfig(configuration);
+        return element;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.inject.Inject;
+
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.resource.DirectoryResource;
+import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.input.UIInput;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+
+/**
+ * Applies a file of configuration operations to the Api Component configuration, writing the POM once.
+ * See {@link ConfigBatch} for the file format.
+ */
+public class BatchConfigCommand extends AbstractConfigCommand {
+
+    @Inject
+    @WithAttributes(label = "Operations File", required = true, description = "File with one configuration operation per line as 'operation,apiName,arguments...'")
+    private UIInput<String> operationsFile;
+
+    @Override
+    public UICommandMetadata getMetadata(UIContext context) {
+        return Metadata.forCommand(BatchConfigCommand.class)
+            .name("Api Component: Batch Config")
+            .category(Categories.create("Camel"));
+    }
+
+    @Override
+    public void initializeUI(UIBuilder builder) throws Exception {
+        builder.add(operationsFile);
+    }
+
+    @Override
+    public Result execute(UIExecutionContext context) throws Exception {
+        Project project = getSelectedProject(context);
+
+        File file = new File(operationsFile.getValue());
+        if (!file.isAbsolute()) {
+            file = new File(project.getRoot().reify(DirectoryResource.class).getUnderlyingResourceObject(), operationsFile.getValue());
+        }
+
+        if (!file.isFile()) {
+            return Results.fail("Operations file not found: " + file);
+        }
+
+        ApiConfiguration configuration = getApiConfiguration(project);
+        ConfigBatch batch;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            batch = ConfigBatch.read(reader);
+            batch.applyTo(configuration);
+        } catch (IllegalArgumentException e) {
+            // nothing is written unless all operations apply
+            return Results.fail(e.getMessage());
+        } catch (IOException e) {
+            return Results.fail("Unable to read operations file " + file + ": " + e.getMessage());
+        }
+
+        updatePlugin(project, configuration);
+
+        return Results.success("Command 'Api Component: Batch Config' applied " + batch.size() + " operations");
+    }
+}
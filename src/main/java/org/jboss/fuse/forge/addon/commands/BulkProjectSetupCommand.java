@@ -0,0 +1,191 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.inject.Inject;
+
+import org.apache.maven.model.Model;
+import org.jboss.forge.addon.maven.projects.MavenBuildSystem;
+import org.jboss.forge.addon.maven.projects.MavenFacet;
+import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.projects.ProjectFacet;
+import org.jboss.forge.addon.projects.facets.MetadataFacet;
+import org.jboss.forge.addon.projects.facets.ResourcesFacet;
+import org.jboss.forge.addon.resource.DirectoryResource;
+import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.input.UIInput;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+
+/**
+ * Sets up all the Api Components listed in a manifest, each in its own project below the selected project.
+ * <p>
+ * The Camel versions are resolved once for all components, and the sources of all components are rendered in
+ * parallel from the shared templates. The selected project must be an aggregator, projects that do not exist yet
+ * are created and added as its modules. See {@link ComponentManifest} for the manifest format.
+ */
+public class BulkProjectSetupCommand extends AbstractApiComponentCommand {
+
+    @Inject
+    @WithAttributes(label = "Camel Version", required = false, description = "Camel version to use. If none provided then the latest version will be used.")
+    private UIInput<String> version;
+
+    @Inject
+    @WithAttributes(label = "Component Manifest", required = true, description = "File listing one component per line as 'name scheme package [directory]'")
+    private UIInput<String> manifest;
+
+    @Inject
+    private ComponentScaffolder componentScaffolder;
+
+    @Inject
+    private MavenBuildSystem buildSystem;
+
+    @Override
+    public boolean isEnabled(UIContext context) {
+        return getSelectedProjectOrNull(context) != null;
+    }
+
+    @Override
+    public UICommandMetadata getMetadata(UIContext context) {
+        return Metadata.forCommand(BulkProjectSetupCommand.class)
+                .name("Api Component: Bulk Setup")
+                .category(Categories.create("Camel"));
+    }
+
+    @Override
+    public void initializeUI(UIBuilder builder) throws Exception {
+        builder.add(version)
+            .add(manifest);
+    }
+
+    @Override
+    public Result execute(UIExecutionContext context) throws Exception {
+        Project parent = getSelectedProject(context);
+        DirectoryResource root = parent.getRoot().reify(DirectoryResource.class);
+
+        List<ComponentSpec> specs;
+        try {
+            specs = readManifest(root);
+        } catch (IllegalArgumentException e) {
+            return Results.fail("Invalid manifest " + manifest.getValue() + ": " + e.getMessage());
+        }
+        if (specs.isEmpty()) {
+            return Results.fail("No components found in " + manifest.getValue());
+        }
+        String packaging = parent.getFacet(MavenFacet.class).getModel().getPackaging();
+        if (!"pom".equals(packaging)) {
+            return Results.fail("Project " + parent.getRoot().getName() + " has packaging '" + packaging
+                + "', it must have 'pom' packaging to hold the components as modules");
+        }
+
+        // resolved once for all components
+        ComponentScaffolder.Versions versions = componentScaffolder.resolveVersions(version.getValue());
+
+        List<String> modules = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        List<CompletableFuture<Void>> resources = new ArrayList<>();
+        CompletableFuture<Void> written;
+        try {
+            for (ComponentSpec spec : specs) {
+                DirectoryResource dir = root.getOrCreateChildDirectory(spec.getDirectory());
+                Project project;
+                if (dir.getChild("pom.xml").exists()) {
+                    project = getProjectFactory().findProject(dir);
+                    if (isCamelComponentProject(project)) {
+                        skipped.add(spec.getName());
+                        continue;
+                    }
+                } else {
+                    project = createProject(parent, dir, spec);
+                    modules.add(spec.getDirectory());
+                }
+
+                try {
+                    componentScaffolder.configureProject(project, spec, versions);
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Unable to set up component " + spec + ": " + e.getMessage(), e);
+                }
+                // written while the next projects are configured
+                resources.add(componentScaffolder.createResources(project, spec));
+            }
+        } finally {
+            // when a component fails, the projects already created are still added and their resources written
+            addModules(parent, modules);
+            written = CompletableFuture.allOf(resources.toArray(new CompletableFuture[resources.size()]));
+            written.handle((result, e) -> null).join();
+        }
+        ComponentScaffolder.await(written);
+
+        String message = "Command 'Api Component: Bulk Setup' set up " + resources.size() + " components";
+        if (!skipped.isEmpty()) {
+            message += ", skipped already setup components " + skipped;
+        }
+        return Results.success(message);
+    }
+
+    private List<ComponentSpec> readManifest(DirectoryResource root) throws IOException {
+        File file = new File(manifest.getValue());
+        if (!file.isAbsolute()) {
+            file = new File(root.getUnderlyingResourceObject(), manifest.getValue());
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return ComponentManifest.read(reader);
+        }
+    }
+
+    private Project createProject(Project parent, DirectoryResource dir, ComponentSpec spec) {
+        List<Class<? extends ProjectFacet>> facets = Arrays.asList(JavaSourceFacet.class, ResourcesFacet.class);
+        Project project = getProjectFactory().createProject(dir, buildSystem, facets);
+
+        MetadataFacet parentMetadata = parent.getFacet(MetadataFacet.class);
+        project.getFacet(MetadataFacet.class)
+            .setProjectGroupName(parentMetadata.getProjectGroupName())
+            .setProjectName(spec.getDirectory())
+            .setProjectVersion(parentMetadata.getProjectVersion());
+        return project;
+    }
+
+    private void addModules(Project parent, List<String> modules) {
+        if (modules.isEmpty()) {
+            return;
+        }
+
+        PomEditSession session = PomEditSession.begin(parent);
+        Model model = session.getModel();
+        for (String module : modules) {
+            if (!model.getModules().contains(module)) {
+                model.addModule(module);
+            }
+        }
+        session.commit();
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a bulk setup manifest, which lists one component per line as {@code name scheme package [directory]}.
+ * <p>
+ * Fields are separated by whitespace, blank lines and lines starting with {@code #} are ignored. The directory
+ * defaults to {@code camel-<scheme>}, and must be relative and stay below the project holding the components.
+ * Schemes and directories must be unique within a manifest.
+ */
+public final class ComponentManifest {
+
+    private ComponentManifest() {
+    }
+
+    public static List<ComponentSpec> read(BufferedReader reader) throws IOException {
+        List<ComponentSpec> specs = new ArrayList<>();
+        Set<String> schemes = new HashSet<>();
+        Set<String> directories = new HashSet<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s+");
+            if (fields.length < 3 || fields.length > 4) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected 'name scheme package [directory]' but was '" + line + "'");
+            }
+            String directory = fields.length == 4 ? fields[3] : "camel-" + fields[1];
+            if (!isNestedDirectory(directory)) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": directory '" + directory
+                    + "' must be a relative path below the project");
+            }
+            if (!schemes.add(fields[1])) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": duplicate scheme '" + fields[1] + "'");
+            }
+            if (!directories.add(directory)) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": duplicate directory '" + directory + "'");
+            }
+            specs.add(new ComponentSpec(fields[0], fields[1], fields[2], directory));
+        }
+        return Collections.unmodifiableList(specs);
+    }
+
+    private static boolean isNestedDirectory(String directory) {
+        if (new File(directory).isAbsolute() || directory.startsWith("/") || directory.startsWith("\\")) {
+            return false;
+        }
+        for (String segment : directory.split("[/\\\\]")) {
+            if ("..".equals(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
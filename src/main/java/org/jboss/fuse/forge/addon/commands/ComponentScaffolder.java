@@ -0,0 +1,376 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.model.Reporting;
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.Dependency;
+import org.jboss.forge.addon.dependencies.DependencyResolver;
+import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
+import org.jboss.forge.addon.dependencies.builder.DependencyBuilder;
+import org.jboss.forge.addon.dependencies.builder.DependencyQueryBuilder;
+import org.jboss.forge.addon.facets.FacetFactory;
+import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
+import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
+import org.jboss.forge.addon.maven.plugins.ExecutionBuilder;
+import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
+import org.jboss.forge.addon.maven.plugins.MavenPluginInstaller;
+import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.projects.ProjectFacet;
+import org.jboss.forge.addon.projects.facets.ResourcesFacet;
+import org.jboss.fuse.forge.addon.util.MavenUtils;
+
+/**
+ * Sets up Api Component projects, shared by the single and bulk setup commands.
+ * <p>
+ * The Camel versions are resolved once with {@link #resolveVersions(String)} and can be used for any number of
+ * components. The POM of each component project is configured in one edit session, and its sources are
+ * rendered in the background from the shared {@link ComponentTemplates}.
+ */
+@Singleton
+public class ComponentScaffolder {
+
+    // TODO determine appropriate log4j version instead of hardcoded value
+    private static final String LOG4J_VERSION = "1.2.17";
+    private static final String JAVA_VERSION = "1.7";
+    private static final String UTF_8 = "UTF-8";
+    private static final String COMPONENT_RESOURCE_PATH = "META-INF/services/org/apache/camel/component".replace('/', File.separatorChar);
+
+    @Inject
+    private DependencyResolver dependencyResolver;
+
+    @Inject
+    private MavenPluginInstaller mavenPluginInstaller;
+
+    @Inject
+    private FacetFactory facetFactory;
+
+    @Inject
+    private ComponentTemplates componentTemplates;
+
+    /**
+     * Resolves the Camel version, or the latest one if none is given, and the slf4j version it depends on.
+     */
+    public Versions resolveVersions(String version) {
+        // version set? otherwise use the latest version, shared with other version queries of the session
+        String camelVersion = version;
+        if (camelVersion == null || camelVersion.isEmpty()) {
+            camelVersion = MavenUtils.resolveLatestVersion(dependencyResolver, MavenUtils.createCoordinate("org.apache.camel", "camel-core"));
+        }
+        if (camelVersion.isEmpty()) {
+            throw new IllegalStateException("Unable to resolve the Camel version");
+        }
+
+        // get the slf4j version camel depends on, resolving the camel-core dependencies only once
+        String slf4jVersion = null;
+        Set<Dependency> camelDependencies = dependencyResolver.resolveDependencies(
+            DependencyQueryBuilder.create("org.apache.camel:camel-core:" + camelVersion));
+        for (Dependency dependency : camelDependencies) {
+            Coordinate coordinate = dependency.getCoordinate();
+            if ("org.slf4j".equals(coordinate.getGroupId()) && "slf4j-api".equals(coordinate.getArtifactId())) {
+                slf4jVersion = coordinate.getVersion();
+            }
+        }
+        if (slf4jVersion == null) {
+            throw new IllegalStateException("Unable to resolve the slf4j version of Camel " + camelVersion);
+        }
+        return new Versions(camelVersion, slf4jVersion);
+    }
+
+    /**
+     * Configures the POM of the component project, writing it once all steps succeeded.
+     */
+    public void configureProject(Project project, ComponentSpec spec, Versions versions) {
+        // edit a copy of the pom, written once all steps succeeded
+        PomEditSession session = PomEditSession.begin(project);
+        try {
+            // set component properties
+            setProjectProperties(session, spec);
+
+            // add dependencies
+            addDependencies(session, versions);
+
+            // add managed plugin
+            addManagedPlugin(session, versions);
+
+            // add plugins
+            addPlugins(project, session, versions);
+
+            // add reporting
+            addReporting(session);
+
+            session.commit();
+        } catch (RuntimeException e) {
+            session.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts rendering the component sources and resources, completing once all of them are written.
+     */
+    public CompletableFuture<Void> createResources(Project project, ComponentSpec spec) {
+
+        JavaSourceFacet javaSourceFacet = getOrInstallFacet(project, JavaSourceFacet.class);
+        ResourcesFacet resourcesFacet = getOrInstallFacet(project, ResourcesFacet.class);
+        File sourceDir = javaSourceFacet.getSourceDirectory().getUnderlyingResourceObject();
+        File testSourceDir = javaSourceFacet.getTestSourceDirectory().getUnderlyingResourceObject();
+        File resourceDir = resourcesFacet.getResourceDirectory().getUnderlyingResourceObject();
+        File testResourceDir = resourcesFacet.getTestResourceDirectory().getUnderlyingResourceObject();
+
+        Map<String, Object> params = spec.getTemplateParams();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+        // java sources
+        writes.add(componentTemplates.writeJavaSource("/templates/Abstract__name__TestSupport.ftl", params, testSourceDir));
+
+        writes.add(componentTemplates.writeJavaSource("/templates/__name__Component.ftl", params, sourceDir));
+        writes.add(componentTemplates.writeJavaSource("/templates/__name__Configuration.ftl", params, sourceDir));
+        writes.add(componentTemplates.writeJavaSource("/templates/__name__Consumer.ftl", params, sourceDir));
+        writes.add(componentTemplates.writeJavaSource("/templates/__name__Endpoint.ftl", params, sourceDir));
+        writes.add(componentTemplates.writeJavaSource("/templates/__name__Producer.ftl", params, sourceDir));
+
+        writes.add(componentTemplates.writeJavaSource("/templates/__name__Constants.ftl", params, sourceDir));
+        writes.add(componentTemplates.writeJavaSource("/templates/__name__PropertiesHelper.ftl", params, sourceDir));
+
+        // resources
+        writes.add(componentTemplates.writeResource("/templates/__scheme__", params,
+            new File(resourceDir, COMPONENT_RESOURCE_PATH + File.separator + spec.getScheme())));
+        writes.add(componentTemplates.writeResource("/templates/log4j.properties", params,
+            new File(testResourceDir, "log4j.properties")));
+        writes.add(componentTemplates.writeResource("/templates/test-options.properties", params,
+            new File(testResourceDir, "test-options.properties")));
+
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[writes.size()]));
+    }
+
+    private void setProjectProperties(PomEditSession session, ComponentSpec spec) {
+        Model model = session.getModel();
+
+        if (model.getName() == null) {
+            model.setName("Camel " + spec.getName() + " Component");
+        }
+        if (model.getDescription() == null) {
+            model.setDescription("Camel Component for " + spec.getName());
+        }
+        model.setPackaging("bundle");
+
+        model.addProperty("schemeName", spec.getScheme());
+        model.addProperty("componentName", spec.getName());
+        model.addProperty("componentPackage", spec.getPackageName());
+        model.addProperty("outPackage", spec.getPackageName() + ".internal");
+        model.addProperty("project.build.sourceEncoding", UTF_8);
+        model.addProperty("project.build.outputEncoding", UTF_8);
+    }
+
+    private void addDependencies(PomEditSession session, Versions versions) {
+        String camelVersion = versions.getCamelVersion();
+        String slf4jVersion = versions.getSlf4jVersion();
+
+        // install dependencies
+        session.addDependencies(new DependencyBatch()
+            .add(DependencyBuilder.create("org.apache.camel:camel-core:" + camelVersion))
+            .add(DependencyBuilder.create("org.apache.camel:apt:" + camelVersion))
+            .add(DependencyBuilder.create("org.apache.camel:spi-annotations:" + camelVersion + ":provided"))
+            .add(DependencyBuilder.create("org.slf4j:slf4j-api:" + slf4jVersion))
+            .add(DependencyBuilder.create("org.slf4j:slf4j-log4j12:" + slf4jVersion + ":test"))
+            .add(DependencyBuilder.create("log4j:log4j:" + LOG4J_VERSION + ":test"))
+            .add(DependencyBuilder.create("org.apache.camel:camel-test:" + camelVersion + ":test")));
+    }
+
+    private void addManagedPlugin(PomEditSession session, Versions versions) {
+        // api component maven plugin
+        MavenPluginBuilder plugin = MavenPluginBuilder.create()
+            .setCoordinate(CoordinateBuilder.create("org.apache.camel:camel-api-component-maven-plugin:" + versions.getCamelVersion()));
+        ConfigurationBuilder configuration = plugin.createConfiguration();
+        configuration.createConfigurationElement("scheme").setText("${schemeName}");
+        configuration.createConfigurationElement("componentName").setText("${componentName}");
+        configuration.createConfigurationElement("componentPackage").setText("${componentPackage}");
+        configuration.createConfigurationElement("outPackage").setText("${outPackage}");
+
+        session.addManagedPlugin(plugin);
+    }
+
+    private void addPlugins(Project project, PomEditSession session, Versions versions) {
+
+        // compiler plugin
+        if (!isPluginInstalled(project, CoordinateBuilder.create("org.apache.maven.plugins:maven-compiler-plugin"))) {
+
+            MavenPluginBuilder compilerPlugin = MavenPluginBuilder.create()
+                .setCoordinate(CoordinateBuilder.create("org.apache.maven.plugins:maven-compiler-plugin:3.5.1"));
+            ConfigurationBuilder configuration = compilerPlugin.createConfiguration();
+            configuration.createConfigurationElement("source").setText(JAVA_VERSION);
+            configuration.createConfigurationElement("target").setText(JAVA_VERSION);
+            session.addPlugin(compilerPlugin);
+        }
+
+        // resources plugin
+        if (!isPluginInstalled(project, CoordinateBuilder.create("org.apache.maven.plugins:maven-resources-plugin"))) {
+
+            MavenPluginBuilder resourcesPlugin = MavenPluginBuilder.create()
+                .setCoordinate(CoordinateBuilder.create("org.apache.maven.plugins:maven-resources-plugin:2.6"));
+            ConfigurationBuilder configuration = resourcesPlugin.createConfiguration();
+            configuration.createConfigurationElement("encoding").setText(UTF_8);
+            session.addPlugin(resourcesPlugin);
+        }
+
+        // bundle plugin
+        if (!isPluginInstalled(project, CoordinateBuilder.create("org.apache.felix:maven-bundle-plugin"))) {
+
+            MavenPluginBuilder bundlePlugin = MavenPluginBuilder.create()
+                .setCoordinate(CoordinateBuilder.create("org.apache.felix:maven-bundle-plugin:2.3.7"))
+                .setExtensions(true);
+            ConfigurationBuilder configuration = bundlePlugin.createConfiguration();
+            ConfigurationElementBuilder instructions = configuration.createConfigurationElement("instructions");
+            instructions.addChild("Bundle-Name").setText("Camel Component for ${componentName}");
+            instructions.addChild("Bundle-SymbolicName").setText("${project.groupId}.${project.artifactId}");
+            instructions.addChild("Export-Service").setText("org.apache.camel.spi.ComponentResolver;component=${schemeName}");
+            instructions.addChild("Export-Package").setText("${componentPackage};version=${project.version}");
+            instructions.addChild("Import-Package").setText("${componentPackage}.api;version=${project.version}," +
+                "${componentPackage};version=${project.version}," +
+                "org.apache.camel.*;version=${camel-version}");
+            instructions.addChild("Private-Package").setText("${outPackage}");
+            instructions.addChild("Implementation-Title").setText("Apache Camel");
+            instructions.addChild("Implementation-Version").setText("${project.version}");
+            instructions.addChild("Karaf-Info").setText("Camel;${project.artifactId}=${project.version}");
+            instructions.addChild("_versionpolicy").setText("[$(version;==;$(@)),$(version;+;$(@)))");
+            instructions.addChild("_failok").setText("false");
+            session.addPlugin(bundlePlugin);
+        }
+
+        // camel-api-component plugin
+        MavenPluginBuilder camelApiPlugin = MavenPluginBuilder.create()
+            .setCoordinate(CoordinateBuilder.create("org.apache.camel:camel-api-component-maven-plugin:" + versions.getCamelVersion()));
+        ConfigurationBuilder configuration = ConfigurationBuilder.create(camelApiPlugin);
+        configuration.createConfigurationElement("apis");
+        camelApiPlugin.addExecution(ExecutionBuilder.create()
+            .setId("generate-component-classes")
+            .addGoal("fromApis")
+            .setConfig(configuration));
+        session.addPlugin(camelApiPlugin);
+
+        // build-helper plugin
+        MavenPluginBuilder buildHelperPlugin = MavenPluginBuilder.create()
+            .setCoordinate(CoordinateBuilder.create("org.codehaus.mojo:build-helper-maven-plugin:1.10"));
+        // add generated component sources
+        configuration = ConfigurationBuilder.create(buildHelperPlugin);
+        configuration.createConfigurationElement("sources")
+            .addChild("source").setText("${project.build.directory}/generated-sources/camel-component");
+        buildHelperPlugin.addExecution(ExecutionBuilder.create()
+            .setId("add-generated-sources")
+            .addGoal("add-source")
+            .setConfig(configuration));
+        // add generated component test sources
+        configuration = ConfigurationBuilder.create(buildHelperPlugin);
+        configuration.createConfigurationElement("sources")
+            .addChild("source").setText("${project.build.directory}/generated-test-sources/camel-component");
+        buildHelperPlugin.addExecution(ExecutionBuilder.create()
+            .setId("add-generated-test-sources")
+            .addGoal("add-test-source")
+            .setConfig(configuration));
+        session.addPlugin(buildHelperPlugin);
+
+        // camel-package plugin
+        MavenPluginBuilder camelPackagePlugin = MavenPluginBuilder.create()
+            .setCoordinate(CoordinateBuilder.create("org.apache.camel:camel-package-maven-plugin:" + versions.getCamelVersion()));
+        camelPackagePlugin.addExecution(ExecutionBuilder.create()
+            .setId("prepare")
+            .addGoal("prepare-components")
+            .setPhase("generate-resources"));
+        camelPackagePlugin.addExecution(ExecutionBuilder.create()
+            .setId("validate")
+            .addGoal("validate-components")
+            .setPhase("prepare-package"));
+        session.addPlugin(camelPackagePlugin);
+    }
+
+    private void addReporting(PomEditSession session) {
+
+        // add camel-api-component plugin for reporting
+        // copy managed plugin configuration
+        Plugin managedPlugin = session.getManagedPlugin("org.apache.camel", "camel-api-component-maven-plugin");
+        ReportPlugin reportPlugin = new ReportPlugin();
+        reportPlugin.setGroupId(managedPlugin.getGroupId());
+        reportPlugin.setArtifactId(managedPlugin.getArtifactId());
+        reportPlugin.setVersion(managedPlugin.getVersion());
+        reportPlugin.setConfiguration(managedPlugin.getConfiguration());
+
+        Reporting reporting = new Reporting();
+        reporting.addPlugin(reportPlugin);
+        session.getModel().setReporting(reporting);
+    }
+
+    /**
+     * Waits for resources started by {@link #createResources(Project, ComponentSpec)}, reporting write failures
+     * as {@link IOException}.
+     */
+    public static void await(CompletableFuture<?> resources) throws IOException {
+        try {
+            resources.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isPluginInstalled(Project project, CoordinateBuilder coordinateBuilder) {
+        return mavenPluginInstaller.isInstalled(project, MavenPluginBuilder.create()
+            .setCoordinate(coordinateBuilder));
+    }
+
+    private <T extends ProjectFacet> T getOrInstallFacet(Project project, Class<T> facetClass) {
+        return project.getFacetAsOptional(facetClass).orElseGet(() -> facetFactory.install(project, facetClass));
+    }
+
+    /**
+     * Camel and slf4j versions used for the component projects.
+     */
+    public static final class Versions {
+        private final String camelVersion;
+        private final String slf4jVersion;
+
+        public Versions(String camelVersion, String slf4jVersion) {
+            this.camelVersion = camelVersion;
+            this.slf4jVersion = slf4jVersion;
+        }
+
+        public String getCamelVersion() {
+            return camelVersion;
+        }
+
+        public String getSlf4jVersion() {
+            return slf4jVersion;
+        }
+    }
+}
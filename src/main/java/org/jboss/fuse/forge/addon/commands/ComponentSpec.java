@@ -0,0 +1,73 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.util.Map;
+
+/**
+ * Name, scheme and package of an Api Component, and the project directory it is scaffolded in when set up in bulk.
+ */
+public final class ComponentSpec {
+
+    private final String name;
+    private final String scheme;
+    private final String packageName;
+    private final String directory;
+    private final Map<String, Object> templateParams;
+
+    public ComponentSpec(String name, String scheme, String packageName) {
+        this(name, scheme, packageName, null);
+    }
+
+    public ComponentSpec(String name, String scheme, String packageName, String directory) {
+        this.name = name;
+        this.scheme = scheme;
+        this.packageName = packageName;
+        this.directory = directory;
+        this.templateParams = ComponentTemplates.createParams(name, scheme, packageName);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getScheme() {
+        return scheme;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Returns the project directory, relative to the project the manifest was read for, or null if not set.
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the template parameters of the component, shared by all of its templates.
+     */
+    public Map<String, Object> getTemplateParams() {
+        return templateParams;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + scheme + ")";
+    }
+}
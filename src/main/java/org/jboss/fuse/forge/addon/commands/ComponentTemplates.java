@@ -0,0 +1,148 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.URLResource;
+import org.jboss.forge.addon.templates.Template;
+import org.jboss.forge.addon.templates.TemplateFactory;
+import org.jboss.forge.addon.templates.freemarker.FreemarkerTemplate;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.JavaSource;
+import org.jboss.fuse.forge.addon.util.DaemonThreadFactory;
+
+/**
+ * Api component templates under {@code /templates}, created once per addon lifecycle and shared by all setups.
+ * This only saves looking up the resource and creating the Forge template; FreeMarker keeps its own cache of the
+ * parsed templates.
+ * <p>
+ * Templates are rendered and written on a small worker pool. A Forge template registers and disposes its resource
+ * with the template engine on each render, so renders of the same template are serialised. Java output is parsed and written unformatted to the
+ * file of its type, as {@code JavaSourceFacet.saveJavaSourceUnformatted} would.
+ */
+@Singleton
+public class ComponentTemplates {
+
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS, new DaemonThreadFactory("fuse-forge-templates"));
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    @Inject
+    private ResourceFactory resourceFactory;
+
+    @Inject
+    private TemplateFactory templateFactory;
+
+    void shutdown(@Observes @Local PreShutdown event) {
+        executor.shutdownNow();
+        templates.clear();
+    }
+
+    /**
+     * Returns the template parameters for a component, created once and used for all of its templates.
+     */
+    public static Map<String, Object> createParams(String name, String scheme, String packageName) {
+        // any dynamic options goes into the params map
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", name);
+        params.put("scheme", scheme);
+        params.put("package", packageName);
+        return Collections.unmodifiableMap(params);
+    }
+
+    public String process(String resourceTemplate, Map<String, Object> params) throws IOException {
+        Template template = getTemplate(resourceTemplate);
+        synchronized (template) {
+            return template.process(params);
+        }
+    }
+
+    /**
+     * Renders a Java template in the background and writes it below the source directory, to the file of the
+     * type it declares.
+     */
+    public CompletableFuture<Void> writeJavaSource(String resourceTemplate, Map<String, Object> params, File sourceDir) {
+        return CompletableFuture.runAsync(() -> {
+            JavaSource<?> javaSource = Roaster.parse(JavaSource.class, render(resourceTemplate, params));
+            write(javaFile(sourceDir, javaSource.getPackage(), javaSource.getName()), javaSource.toUnformattedString());
+        }, executor);
+    }
+
+    /**
+     * Renders a template in the background and writes it to the given file.
+     */
+    public CompletableFuture<Void> writeResource(String resourceTemplate, Map<String, Object> params, File target) {
+        return CompletableFuture.runAsync(() -> write(target, render(resourceTemplate, params)), executor);
+    }
+
+    static File javaFile(File sourceDir, String packageName, String typeName) {
+        File dir = packageName == null || packageName.isEmpty()
+            ? sourceDir : new File(sourceDir, packageName.replace('.', File.separatorChar));
+        return new File(dir, typeName + ".java");
+    }
+
+    private String render(String resourceTemplate, Map<String, Object> params) {
+        try {
+            return process(resourceTemplate, params);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(File file, String contents) {
+        File dir = file.getParentFile();
+        if (!dir.mkdirs() && !dir.isDirectory()) {
+            throw new UncheckedIOException(new IOException("Unable to create directory " + dir));
+        }
+        try {
+            Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Template getTemplate(String resourceTemplate) {
+        return templates.computeIfAbsent(resourceTemplate, path -> {
+            URL url = ComponentTemplates.class.getResource(path);
+            if (url == null) {
+                throw new IllegalArgumentException("Template not found: " + path);
+            }
+            Resource<URL> urlResource = resourceFactory.create(url).reify(URLResource.class);
+            return templateFactory.create(urlResource, FreemarkerTemplate.class);
+        });
+    }
+}
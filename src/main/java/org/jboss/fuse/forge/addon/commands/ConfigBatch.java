@@ -0,0 +1,289 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
+
+import static org.jboss.fuse.forge.addon.commands.AbstractApiComponentCommand.getOrCreateChild;
+
+/**
+ * Configuration operations read from a file, applied together to one {@link ApiConfiguration}.
+ * <p>
+ * Each line holds one comma separated operation, {@code operation,apiName,arguments...}, where an empty API name
+ * applies the operation to the global plugin configuration, outside of any API, as the single commands do without
+ * an API name. Fields are trimmed, and may be double quoted to contain commas or keep spaces, with {@code ""} for
+ * a quote.
+ * Blank lines and lines starting with {@code #} are ignored. The operations and their arguments are:
+ * <ul>
+ * <li>{@code alias,api,methodPattern,methodAlias}</li>
+ * <li>{@code substitution,api,method,argName,argType,replacement[,replaceWithType]}, with an optional empty argType</li>
+ * <li>{@code extraOption,api,name,type}</li>
+ * <li>{@code nullableOption,api,name}</li>
+ * <li>{@code excludeConfigNames,api,regex} and {@code excludeConfigTypes,api,regex}</li>
+ * <li>{@code excludeJavadocPackages,api,regex}, {@code excludeJavadocClasses,api,regex} and {@code excludeJavadocMethods,api,regex}</li>
+ * <li>{@code includeJavadocStaticMethods,api,true|false}</li>
+ * </ul>
+ * Regular expressions are compile checked and boolean arguments checked to be true or false when read. Regular
+ * expressions are appended to existing ones as the single commands do by default.
+ */
+public final class ConfigBatch {
+
+    enum Operation {
+        ALIAS("alias", "aliases", 2, 2) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addAlias(element, args.get(0), args.get(1));
+            }
+        },
+        SUBSTITUTION("substitution", "substitutions", 4, 5, 4) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                String argType = args.get(2).isEmpty() ? null : args.get(2);
+                Boolean replaceWithType = args.size() > 4 && !args.get(4).isEmpty() ? Boolean.valueOf(args.get(4)) : null;
+                ConfigOperations.addSubstitution(element, args.get(0), args.get(1), argType, args.get(3), replaceWithType);
+            }
+        },
+        EXTRA_OPTION("extraOption", "extraOptions", 2, 2) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addExtraOption(element, args.get(0), args.get(1));
+            }
+        },
+        NULLABLE_OPTION("nullableOption", "nullableOptions", 1, 1) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addNullableOption(element, args.get(0));
+            }
+        },
+        EXCLUDE_CONFIG_NAMES("excludeConfigNames", "excludeConfigNames", 1, 1, true) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addRegex(element, args.get(0), true);
+            }
+        },
+        EXCLUDE_CONFIG_TYPES("excludeConfigTypes", "excludeConfigTypes", 1, 1, true) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addRegex(element, args.get(0), true);
+            }
+        },
+        EXCLUDE_JAVADOC_PACKAGES("excludeJavadocPackages", "fromJavadoc", 1, 1, true) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addRegex(getOrCreateChild(element, "excludePackages"), args.get(0), true);
+            }
+        },
+        EXCLUDE_JAVADOC_CLASSES("excludeJavadocClasses", "fromJavadoc", 1, 1, true) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addRegex(getOrCreateChild(element, "excludeClasses"), args.get(0), true);
+            }
+        },
+        EXCLUDE_JAVADOC_METHODS("excludeJavadocMethods", "fromJavadoc", 1, 1, true) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.addRegex(getOrCreateChild(element, "excludeMethods"), args.get(0), true);
+            }
+        },
+        INCLUDE_JAVADOC_STATIC_METHODS("includeJavadocStaticMethods", "fromJavadoc", 1, 1, 0) {
+            @Override
+            void apply(ConfigurationElementBuilder element, List<String> args) {
+                ConfigOperations.setIncludeStaticMethods(element, Boolean.valueOf(args.get(0)));
+            }
+        };
+
+        private static final Map<String, Operation> BY_NAME = new HashMap<>();
+
+        static {
+            for (Operation operation : values()) {
+                BY_NAME.put(operation.operationName, operation);
+            }
+        }
+
+        private final String operationName;
+        private final String elementName;
+        private final int minArgs;
+        private final int maxArgs;
+        private final boolean regex;
+        // index of the true or false argument, optional when past minArgs, or -1
+        private final int booleanArg;
+
+        Operation(String operationName, String elementName, int minArgs, int maxArgs) {
+            this(operationName, elementName, minArgs, maxArgs, false, -1);
+        }
+
+        Operation(String operationName, String elementName, int minArgs, int maxArgs, boolean regex) {
+            this(operationName, elementName, minArgs, maxArgs, regex, -1);
+        }
+
+        Operation(String operationName, String elementName, int minArgs, int maxArgs, int booleanArg) {
+            this(operationName, elementName, minArgs, maxArgs, false, booleanArg);
+        }
+
+        Operation(String operationName, String elementName, int minArgs, int maxArgs, boolean regex, int booleanArg) {
+            this.operationName = operationName;
+            this.elementName = elementName;
+            this.minArgs = minArgs;
+            this.maxArgs = maxArgs;
+            this.regex = regex;
+            this.booleanArg = booleanArg;
+        }
+
+        abstract void apply(ConfigurationElementBuilder element, List<String> args);
+    }
+
+    private static final class Entry {
+        private final int lineNumber;
+        private final Operation operation;
+        private final String apiName;
+        private final List<String> args;
+
+        private Entry(int lineNumber, Operation operation, String apiName, List<String> args) {
+            this.lineNumber = lineNumber;
+            this.operation = operation;
+            this.apiName = apiName;
+            this.args = args;
+        }
+    }
+
+    private final List<Entry> entries;
+
+    private ConfigBatch(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static ConfigBatch read(BufferedReader reader) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty() || line.trim().startsWith("#")) {
+                continue;
+            }
+
+            List<String> fields = split(line, lineNumber);
+            Operation operation = Operation.BY_NAME.get(fields.get(0).trim());
+            if (operation == null) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown operation '" + fields.get(0).trim() + "'");
+            }
+            int args = fields.size() - 2;
+            if (args < operation.minArgs || args > operation.maxArgs) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": operation '" + operation.operationName
+                    + "' expects " + (operation.minArgs == operation.maxArgs ? operation.minArgs : operation.minArgs + " to " + operation.maxArgs)
+                    + " arguments after the API name but has " + Math.max(args, 0));
+            }
+            if (operation.regex) {
+                try {
+                    Pattern.compile(fields.get(2));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": invalid regular expression: "
+                        + e.getDescription() + " near index " + e.getIndex());
+                }
+            }
+            if (operation.booleanArg >= 0 && operation.booleanArg < args) {
+                String value = fields.get(2 + operation.booleanArg);
+                boolean optional = operation.booleanArg >= operation.minArgs && value.isEmpty();
+                if (!optional && !"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": operation '" + operation.operationName
+                        + "' expects true or false but has '" + value + "'");
+                }
+            }
+            String apiName = fields.get(1).trim();
+            entries.add(new Entry(lineNumber, operation, apiName.isEmpty() ? null : apiName,
+                Collections.unmodifiableList(fields.subList(2, fields.size()))));
+        }
+        return new ConfigBatch(entries);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Applies all operations to the configuration, failing on the first operation for a missing API.
+     */
+    public void applyTo(ApiConfiguration configuration) {
+        for (Entry entry : entries) {
+            ConfigurationElementBuilder element;
+            if (entry.apiName == null) {
+                element = configuration.getGlobalElement(entry.operation.elementName);
+            } else {
+                element = configuration.getApiElement(entry.apiName, entry.operation.elementName);
+                if (element == null) {
+                    throw new IllegalArgumentException("Line " + entry.lineNumber + ": missing API name " + entry.apiName);
+                }
+            }
+            entry.operation.apply(element, entry.args);
+        }
+    }
+
+    static List<String> split(String line, int lineNumber) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        // the length of the field up to the end of its last quoted part, which is not trimmed
+        int quotedLength = 0;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                    quotedLength = field.length();
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(trim(field, quotedLength));
+                field.setLength(0);
+                quotedLength = 0;
+            } else if (field.length() > 0 || !Character.isWhitespace(c)) {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": unterminated quoted field");
+        }
+        fields.add(trim(field, quotedLength));
+        if (fields.size() < 2) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected 'operation,apiName,arguments...'");
+        }
+        return fields;
+    }
+
+    private static String trim(StringBuilder field, int quotedLength) {
+        int end = field.length();
+        while (end > quotedLength && Character.isWhitespace(field.charAt(end - 1))) {
+            end--;
+        }
+        return field.substring(0, end);
+    }
+}
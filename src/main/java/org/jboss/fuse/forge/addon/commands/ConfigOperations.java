@@ -0,0 +1,88 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
+import org.jboss.fuse.forge.addon.util.RegexOptimizer;
+
+import static org.jboss.fuse.forge.addon.commands.AbstractApiComponentCommand.getOrCreateChild;
+
+/**
+ * Edits of the Api Component configuration elements, shared by the single configuration commands and
+ * {@link BatchConfigCommand}.
+ */
+final class ConfigOperations {
+
+    private ConfigOperations() {
+    }
+
+    static void addAlias(ConfigurationElementBuilder aliases, String methodPattern, String methodAlias) {
+        ConfigurationElementBuilder alias = aliases.createConfigurationElement("alias");
+        getOrCreateChild(alias, "methodPattern").setText(methodPattern);
+        getOrCreateChild(alias, "methodAlias").setText(methodAlias);
+    }
+
+    static void addSubstitution(ConfigurationElementBuilder substitutions, String method, String argName, String argType,
+                                String replacement, Boolean replaceWithType) {
+        ConfigurationElementBuilder substitution = substitutions.createConfigurationElement("substitution");
+        getOrCreateChild(substitution, "method").setText(method);
+        getOrCreateChild(substitution, "argName").setText(argName);
+        if (argType != null) {
+            getOrCreateChild(substitution, "argType").setText(argType);
+        }
+        getOrCreateChild(substitution, "replacement").setText(replacement);
+        if (replaceWithType != null) {
+            getOrCreateChild(substitution, "replaceWithType").setText(replaceWithType.toString());
+        }
+    }
+
+    static void addExtraOption(ConfigurationElementBuilder extraOptions, String name, String type) {
+        ConfigurationElementBuilder extraOption = extraOptions.createConfigurationElement("extraOption");
+        // type could have '<>' for generic types, so wrap with CDATA if needed
+        String typeValue = type;
+        // TODO this attempt to handle escaped XML characters fails, since re-parsing decodes it and barfs when re-writing
+        if (typeValue.indexOf('<') != -1) {
+            typeValue = "<![CDATA[" + typeValue + "]]>";
+        }
+        extraOption.createConfigurationElement("type").setText(typeValue);
+        extraOption.createConfigurationElement("name").setText(name);
+    }
+
+    static void addNullableOption(ConfigurationElementBuilder nullableOptions, String nullableOption) {
+        nullableOptions.createConfigurationElement("nullableOption").setText(nullableOption);
+    }
+
+    /**
+     * Sets the regular expression of the element, or appends it as a new group to the existing expression.
+     */
+    static void addRegex(ConfigurationElementBuilder element, String regex, boolean append) {
+        element.setText(appendRegex(element.getText(), regex, append));
+    }
+
+    static void setIncludeStaticMethods(ConfigurationElementBuilder fromJavadoc, Boolean includeStaticMethods) {
+        getOrCreateChild(fromJavadoc, "includeStaticMethods").setText(String.valueOf(includeStaticMethods));
+    }
+
+    /**
+     * Returns the new expression, or its alternation with the old one when appending, in the merged form of
+     * {@link RegexOptimizer#merge(String, String)}.
+     *
+     * @throws java.util.regex.PatternSyntaxException if an expression is invalid
+     */
+    static String appendRegex(String oldRegEx, String regex, boolean append) {
+        return RegexOptimizer.merge(append ? oldRegEx : null, regex);
+    }
+}
@@ -17,9 +17,6 @@ package org.jboss.fuse.forge.addon.commands;
 
 import javax.inject.Inject;
 
-import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
-import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
-import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
@@ -57,20 +54,14 @@ public class DeleteApiCommand extends AbstractConfigCommand {
         String name = apiName.getValue();
 
         Project project = getSelectedProject(context);
-        MavenPluginBuilder pluginBuilder = getPluginBuilder(project);
-        ConfigurationBuilder configurationBuilder = getConfigurationBuilder(pluginBuilder);
-        ConfigurationElementBuilder apis = getElementBuilder(configurationBuilder);
+        ApiConfiguration configuration = getApiConfiguration(project);
 
-        ConfigurationElementBuilder apiElement;
-        if ((apiElement = getApiElement(name, apis)) == null) {
+        // TODO should have user confirm before destroying the whole API sub-tree
+        if (!configuration.removeApi(name)) {
             return Results.fail("No API found with name " + name);
         }
 
-        // TODO should have user confirm before destroying the whole API sub-tree
-        ConfigurationElementBuilder parentElement = apiElement.getParentElement();
-        parentElement.getChildren().remove(apiElement);
-
-        updatePlugin(project, pluginBuilder);
+        updatePlugin(project, configuration);
 
         return Results.success("Command 'Api Component: Add Api' successfully executed!");
 	}
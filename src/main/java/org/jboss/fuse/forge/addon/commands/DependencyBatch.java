@@ -0,0 +1,104 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.Dependency;
+
+/**
+ * Collects dependencies to add to a project and adds them all to its POM model at once, see {@link PomEditSession}.
+ * <p>
+ * Dependencies the project already declares are left as they are, and dependencies the POM already manages,
+ * itself or through its parents, are added without a version.
+ */
+public class DependencyBatch {
+
+    private final List<Dependency> dependencies = new ArrayList<>();
+
+    public DependencyBatch add(Dependency dependency) {
+        dependencies.add(dependency);
+        return this;
+    }
+
+    /**
+     * Adds the collected dependencies to the model.
+     */
+    public void applyTo(Model model) {
+        applyTo(model, Collections.emptyList());
+    }
+
+    /**
+     * Adds the collected dependencies to the model, also leaving out the version of the given managed dependencies,
+     * typically those of the effective model that the model inherits or imports.
+     */
+    public void applyTo(Model model, List<org.apache.maven.model.Dependency> managedDependencies) {
+        Set<String> declared = new HashSet<>();
+        for (org.apache.maven.model.Dependency dependency : model.getDependencies()) {
+            declared.add(toKey(dependency));
+        }
+        Set<String> managed = new HashSet<>();
+        for (org.apache.maven.model.Dependency dependency : managedDependencies) {
+            managed.add(toKey(dependency));
+        }
+        DependencyManagement dependencyManagement = model.getDependencyManagement();
+        if (dependencyManagement != null) {
+            for (org.apache.maven.model.Dependency dependency : dependencyManagement.getDependencies()) {
+                managed.add(toKey(dependency));
+            }
+        }
+
+        for (Dependency dependency : dependencies) {
+            org.apache.maven.model.Dependency modelDependency = toModelDependency(dependency);
+            String key = toKey(modelDependency);
+            if (declared.add(key)) {
+                if (managed.contains(key)) {
+                    modelDependency.setVersion(null);
+                }
+                model.addDependency(modelDependency);
+            }
+        }
+    }
+
+    private static org.apache.maven.model.Dependency toModelDependency(Dependency dependency) {
+        Coordinate coordinate = dependency.getCoordinate();
+        org.apache.maven.model.Dependency result = new org.apache.maven.model.Dependency();
+        result.setGroupId(coordinate.getGroupId());
+        result.setArtifactId(coordinate.getArtifactId());
+        result.setVersion(coordinate.getVersion());
+        result.setClassifier(coordinate.getClassifier());
+        if (coordinate.getPackaging() != null && !"jar".equals(coordinate.getPackaging())) {
+            result.setType(coordinate.getPackaging());
+        }
+        // compile is the default scope, leave it out like the installer does
+        if (dependency.getScopeType() != null && !"compile".equals(dependency.getScopeType())) {
+            result.setScope(dependency.getScopeType());
+        }
+        return result;
+    }
+
+    private static String toKey(org.apache.maven.model.Dependency dependency) {
+        return dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getType() + ":"
+            + (dependency.getClassifier() != null ? dependency.getClassifier() : "");
+    }
+}
@@ -48,6 +48,11 @@ public class ExcludeConfigNamesCommand extends AbstractAddRegExCommand {
         builder.add(excludeConfigNames);
 	}
 
+	@Override
+	protected UIInput<String> getRegexInput() {
+		return excludeConfigNames;
+	}
+
 	@Override
 	protected String getConfigElementName() {
 		return "excludeConfigNames";
@@ -48,6 +48,11 @@ public class ExcludeConfigTypesCommand extends AbstractAddRegExCommand {
         builder.add(excludeConfigTypes);
 	}
 
+	@Override
+	protected UIInput<String> getRegexInput() {
+		return excludeConfigTypes;
+	}
+
 	@Override
 	protected String getConfigElementName() {
 		return "excludeConfigTypes";
@@ -0,0 +1,241 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import javax.inject.Inject;
+
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.Dependency;
+import org.jboss.forge.addon.dependencies.DependencyResolver;
+import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
+import org.jboss.forge.addon.dependencies.builder.DependencyQueryBuilder;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.input.UIInput;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+import org.jboss.fuse.forge.addon.completer.ClassHeader;
+import org.jboss.fuse.forge.addon.completer.ClassNameIndex;
+import org.jboss.fuse.forge.addon.completer.DependencyClassCompleter;
+import org.jboss.fuse.forge.addon.util.MavenUtils;
+
+/**
+ * Adds an API for every public service interface in an artifact, or in the project dependencies, optionally
+ * limited to a package and its sub packages.
+ * <p>
+ * API names are derived from the interface names, see {@link #toApiName(String)}. Interfaces that are already
+ * used as proxy class, or whose API name is taken, are skipped. All APIs are added to one configuration and
+ * written with a single POM update.
+ */
+public class ImportApisCommand extends AbstractConfigCommand {
+
+    private static final String[] NAME_SUFFIXES = {"Service", "Api", "Resource", "Client", "Operations"};
+
+    @Inject
+    @WithAttributes(label = "Artifact", required = false, description = "Artifact to import the service interfaces of as 'groupId:artifactId[:version]', all project dependencies if left empty")
+    private UIInput<String> artifact;
+
+    @Inject
+    @WithAttributes(label = "Package", required = false, description = "Package to import the service interfaces of, including sub packages")
+    private UIInput<String> packageName;
+
+    @Inject
+    private DependencyResolver dependencyResolver;
+
+    @Inject
+    private ClassNameIndex classNameIndex;
+
+    @Override
+    public UICommandMetadata getMetadata(UIContext context) {
+        return Metadata.forCommand(ImportApisCommand.class)
+            .name("Api Component: Import Apis")
+            .category(Categories.create("Camel"));
+    }
+
+    @Override
+    public void initializeUI(UIBuilder builder) throws Exception {
+        builder.add(artifact)
+            .add(packageName);
+    }
+
+    @Override
+    public Result execute(UIExecutionContext context) throws Exception {
+        String artifactValue = artifact.getValue();
+        String packageValue = packageName.getValue();
+        boolean hasArtifact = artifactValue != null && !artifactValue.isEmpty();
+        boolean hasPackage = packageValue != null && !packageValue.isEmpty();
+        if (!hasArtifact && !hasPackage) {
+            return Results.fail("Either an artifact or a package is required");
+        }
+
+        Project project = getSelectedProject(context);
+        List<String> interfaces;
+        try {
+            interfaces = hasArtifact ? findInterfaces(project, artifactValue) : findInterfaces(project);
+        } catch (IllegalArgumentException e) {
+            return Results.fail(e.getMessage());
+        }
+        if (hasPackage) {
+            interfaces = filterPackage(interfaces, packageValue);
+        }
+
+        ApiConfiguration configuration = getApiConfiguration(project);
+        ImportedApis imported = addApis(configuration, interfaces);
+        if (imported.added.isEmpty()) {
+            // a failure, so that scripted runs notice nothing was imported
+            return Results.fail("No new service interfaces found" + (imported.skipped.isEmpty() ? "" : ", skipped " + imported.skipped));
+        }
+        updatePlugin(project, configuration);
+
+        String message = "Command 'Api Component: Import Apis' added " + imported.added.size() + " APIs " + imported.added;
+        if (!imported.skipped.isEmpty()) {
+            message += ", skipped interfaces with duplicate API names " + imported.skipped;
+        }
+        return Results.success(message);
+    }
+
+    /**
+     * Adds an API for each interface not used as proxy class yet, named by {@link #toApiName(String)} or, if that
+     * name is taken, by the interface simple name. Interfaces whose names are both taken are skipped.
+     */
+    static ImportedApis addApis(ApiConfiguration configuration, List<String> interfaces) {
+        ImportedApis imported = new ImportedApis();
+        for (String proxyClass : interfaces) {
+            if (configuration.hasProxyClass(proxyClass)) {
+                continue;
+            }
+            String name = toApiName(proxyClass);
+            if (configuration.hasApi(name)) {
+                // fall back to the full interface name
+                name = lowerCamel(simpleName(proxyClass));
+            }
+            if (configuration.addApi(name, proxyClass) != null) {
+                imported.added.add(name);
+            } else {
+                imported.skipped.add(proxyClass);
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Derives an API name from an interface name, the simple name in lower camel case without a common service
+     * suffix, e.g. {@code people} for {@code com.example.PeopleService}.
+     */
+    static String toApiName(String className) {
+        String name = simpleName(className);
+        for (String suffix : NAME_SUFFIXES) {
+            if (name.length() > suffix.length() && name.endsWith(suffix)) {
+                name = name.substring(0, name.length() - suffix.length());
+                break;
+            }
+        }
+        return lowerCamel(name);
+    }
+
+    static List<String> filterPackage(List<String> classNames, String packageName) {
+        String prefix = packageName.endsWith(".") ? packageName : packageName + ".";
+        List<String> filtered = new ArrayList<>();
+        for (String className : classNames) {
+            if (className.startsWith(prefix)) {
+                filtered.add(className);
+            }
+        }
+        return filtered;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String lowerCamel(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Returns the service interfaces in the jar of the artifact.
+     *
+     * @throws IllegalArgumentException if the artifact cannot be resolved
+     */
+    private List<String> findInterfaces(Project project, String artifactValue) throws Exception {
+        Coordinate coordinate = CoordinateBuilder.create(artifactValue);
+        if (coordinate.getVersion() == null || coordinate.getVersion().isEmpty()) {
+            coordinate = withVersion(project, coordinate);
+        }
+
+        Dependency dependency;
+        try {
+            dependency = dependencyResolver.resolveArtifact(DependencyQueryBuilder.create(coordinate));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unable to resolve " + coordinate + ": " + e.getMessage(), e);
+        }
+        if (dependency == null || dependency.getArtifact() == null) {
+            throw new IllegalArgumentException("Unable to resolve " + coordinate);
+        }
+        File jar = new File(dependency.getArtifact().getFullyQualifiedName());
+        return classNameIndex.getClassNames(dependency.getCoordinate(), jar, ClassHeader::isServiceInterface);
+    }
+
+    private List<String> findInterfaces(Project project) {
+        // sorted and deduplicated, jars are indexed concurrently
+        TreeSet<String> interfaces = new TreeSet<>();
+        classNameIndex.index(DependencyClassCompleter.getDependencyCoordinates(project),
+            coordinate -> DependencyClassCompleter.resolveTree(dependencyResolver, coordinate),
+            ClassHeader::isServiceInterface,
+            names -> {
+                synchronized (interfaces) {
+                    interfaces.addAll(names);
+                }
+            }).join();
+        synchronized (interfaces) {
+            return new ArrayList<>(interfaces);
+        }
+    }
+
+    private Coordinate withVersion(Project project, Coordinate coordinate) {
+        // prefer the version the project manages
+        for (Coordinate managed : DependencyClassCompleter.getDependencyCoordinates(project)) {
+            if (managed.getGroupId().equals(coordinate.getGroupId()) && managed.getArtifactId().equals(coordinate.getArtifactId())
+                && managed.getVersion() != null) {
+                return managed;
+            }
+        }
+
+        String version = MavenUtils.resolveLatestVersion(dependencyResolver, coordinate);
+        if (version.isEmpty()) {
+            throw new IllegalArgumentException("Unable to resolve a version of " + coordinate);
+        }
+        return CoordinateBuilder.create(coordinate).setVersion(version);
+    }
+
+    /**
+     * The API names added and the interfaces skipped by {@link #addApis(ApiConfiguration, List)}.
+     */
+    static final class ImportedApis {
+        final List<String> added = new ArrayList<>();
+        final List<String> skipped = new ArrayList<>();
+    }
+}
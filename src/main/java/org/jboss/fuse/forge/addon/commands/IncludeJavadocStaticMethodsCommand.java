@@ -55,8 +55,7 @@ public class IncludeJavadocStaticMethodsCommand extends AbstractConfigElementCom
 
 	@Override
 	protected Result doConfigure(ConfigurationElementBuilder configElement) {
-		ConfigurationElementBuilder elementBuilder = getOrCreateChild(configElement, "includeStaticMethods");
-		elementBuilder.setText(String.valueOf(includeStaticMethods.getValue()));
+		ConfigOperations.setIncludeStaticMethods(configElement, includeStaticMethods.getValue());
 
 		return Results.success("Command 'Api Component: Include Javadoc Static Methods' successfully executed!");
 	}
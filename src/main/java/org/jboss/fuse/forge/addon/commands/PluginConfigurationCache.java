@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+import org.apache.maven.model.Plugin;
+import org.jboss.forge.addon.maven.plugins.MavenPlugin;
+import org.jboss.forge.addon.maven.plugins.MavenPluginAdapter;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+
+/**
+ * Plugin configurations read from project POMs, so that consecutive configuration commands on a project do not
+ * look up and copy the plugin from the POM model each time.
+ * <p>
+ * Entries are keyed by POM file and invalidated when its modification time or length changes. Commands that
+ * write the plugin invalidate its entry, so the next lookup reads back what was written rather than what the
+ * command meant to write. Each lookup returns a deep copy, which the caller is free to edit.
+ */
+@Singleton
+public class PluginConfigurationCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    void shutdown(@Observes @Local PreShutdown event) {
+        entries.clear();
+    }
+
+    /**
+     * Returns a copy of the cached plugin for the POM, loading it if the POM changed since it was cached.
+     */
+    public MavenPlugin get(File pom, Supplier<MavenPlugin> loader) {
+        String key = pom.getAbsolutePath();
+        long lastModified = pom.lastModified();
+        long length = pom.length();
+
+        Entry entry = entries.get(key);
+        if (entry == null || entry.lastModified != lastModified || entry.length != length) {
+            MavenPlugin plugin = loader.get();
+            if (plugin == null) {
+                entries.remove(key);
+                return null;
+            }
+            entry = new Entry(lastModified, length, new MavenPluginAdapter(plugin));
+            entries.put(key, entry);
+        }
+        return new MavenPluginAdapter(entry.plugin.clone());
+    }
+
+    public void invalidate(File pom) {
+        entries.remove(pom.getAbsolutePath());
+    }
+
+    private static final class Entry {
+        private final long lastModified;
+        private final long length;
+        private final Plugin plugin;
+
+        private Entry(long lastModified, long length, Plugin plugin) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.plugin = plugin;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.PluginManagement;
+import org.jboss.forge.addon.maven.plugins.MavenPlugin;
+import org.jboss.forge.addon.maven.plugins.MavenPluginAdapter;
+import org.jboss.forge.addon.maven.projects.MavenFacet;
+import org.jboss.forge.addon.maven.resources.MavenModelResource;
+import org.jboss.forge.addon.projects.Project;
+
+/**
+ * Edits a copy of a project POM model and writes it back once, on {@link #commit()}.
+ * <p>
+ * Until then the project POM is left untouched, so a session that fails half way through, or is
+ * {@link #rollback() rolled back}, leaves no partial changes behind.
+ */
+public class PomEditSession {
+
+    private final Consumer<Model> writer;
+    private final Supplier<List<Dependency>> effectiveManagedDependencies;
+    private List<Dependency> managedDependencies;
+    private Model model;
+
+    PomEditSession(Model model, Consumer<Model> writer) {
+        this(model, writer, Collections::emptyList);
+    }
+
+    PomEditSession(Model model, Consumer<Model> writer, Supplier<List<Dependency>> effectiveManagedDependencies) {
+        this.writer = writer;
+        this.effectiveManagedDependencies = effectiveManagedDependencies;
+        this.model = model.clone();
+    }
+
+    public static PomEditSession begin(Project project) {
+        MavenFacet maven = project.getFacet(MavenFacet.class);
+        MavenModelResource modelResource = maven.getModelResource();
+        return new PomEditSession(modelResource.getCurrentModel(), modelResource::setCurrentModel,
+            () -> getEffectiveManagedDependencies(maven));
+    }
+
+    /**
+     * Returns the model being edited.
+     */
+    public Model getModel() {
+        checkOpen();
+        return model;
+    }
+
+    public PomEditSession addDependencies(DependencyBatch dependencies) {
+        Model model = getModel();
+        if (managedDependencies == null) {
+            // building the effective model is costly, so it is only done once per session
+            managedDependencies = effectiveManagedDependencies.get();
+        }
+        dependencies.applyTo(model, managedDependencies);
+        return this;
+    }
+
+    /**
+     * Adds the plugin to the build plugins, or adds its missing executions if the build already has the plugin.
+     */
+    public PomEditSession addPlugin(MavenPlugin plugin) {
+        Build build = getBuild();
+        merge(build.getPlugins(), new MavenPluginAdapter(plugin), build::addPlugin);
+        return this;
+    }
+
+    /**
+     * Adds the plugin to the build plugin management, or adds its missing executions if it is already managed.
+     */
+    public PomEditSession addManagedPlugin(MavenPlugin plugin) {
+        Build build = getBuild();
+        if (build.getPluginManagement() == null) {
+            build.setPluginManagement(new PluginManagement());
+        }
+        PluginManagement pluginManagement = build.getPluginManagement();
+        merge(pluginManagement.getPlugins(), new MavenPluginAdapter(plugin), pluginManagement::addPlugin);
+        return this;
+    }
+
+    /**
+     * Returns the managed plugin with the given group and artifact id, as edited in this session, or null.
+     */
+    public Plugin getManagedPlugin(String groupId, String artifactId) {
+        Build build = getModel().getBuild();
+        if (build == null || build.getPluginManagement() == null) {
+            return null;
+        }
+        return find(build.getPluginManagement().getPlugins(), groupId, artifactId);
+    }
+
+    /**
+     * Writes the edited model to the project POM and closes the session.
+     */
+    public void commit() {
+        checkOpen();
+        writer.accept(model);
+        model = null;
+    }
+
+    /**
+     * Discards the edited model and closes the session, the project POM is left as it was.
+     */
+    public void rollback() {
+        model = null;
+    }
+
+    private Build getBuild() {
+        Model model = getModel();
+        if (model.getBuild() == null) {
+            model.setBuild(new Build());
+        }
+        return model.getBuild();
+    }
+
+    private static List<Dependency> getEffectiveManagedDependencies(MavenFacet maven) {
+        // unlike the edited model, includes the dependencies managed by the parent POMs and imported BOMs
+        Model effective = maven.getEffectiveModel();
+        if (effective == null || effective.getDependencyManagement() == null) {
+            return Collections.emptyList();
+        }
+        return effective.getDependencyManagement().getDependencies();
+    }
+
+    private static void merge(List<Plugin> plugins, Plugin plugin, Consumer<Plugin> add) {
+        Plugin existing = find(plugins, plugin.getGroupId(), plugin.getArtifactId());
+        if (existing == null) {
+            add.accept(plugin);
+            return;
+        }
+
+        for (PluginExecution execution : plugin.getExecutions()) {
+            if (!hasExecution(existing, execution.getId())) {
+                existing.addExecution(execution);
+            }
+        }
+        if (existing.getConfiguration() == null) {
+            existing.setConfiguration(plugin.getConfiguration());
+        }
+    }
+
+    private static boolean hasExecution(Plugin plugin, String id) {
+        for (PluginExecution execution : plugin.getExecutions()) {
+            if (execution.getId().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Plugin find(List<Plugin> plugins, String groupId, String artifactId) {
+        for (Plugin plugin : plugins) {
+            if (groupId.equals(plugin.getGroupId()) && artifactId.equals(plugin.getArtifactId())) {
+                return plugin;
+            }
+        }
+        return null;
+    }
+
+    private void checkOpen() {
+        if (model == null) {
+            throw new IllegalStateException("POM edit session is closed");
+        }
+    }
+}
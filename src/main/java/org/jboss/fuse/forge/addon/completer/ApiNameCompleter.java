@@ -16,9 +16,9 @@
 package org.jboss.fuse.forge.addon.completer;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
@@ -29,11 +29,8 @@ import org.jboss.forge.addon.ui.input.UICompleter;
 public class ApiNameCompleter implements UICompleter<String> {
     private final List<String> apiNames;
 
-    public ApiNameCompleter(List<ConfigurationElement> apis) {
-        apiNames = new ArrayList<>();
-        for (ConfigurationElement api : apis) {
-            apiNames.add(api.getChildByName("apiName").getText());
-        }
+    public ApiNameCompleter(Collection<String> apiNames) {
+        this.apiNames = new ArrayList<>(apiNames);
     }
 
     @Override
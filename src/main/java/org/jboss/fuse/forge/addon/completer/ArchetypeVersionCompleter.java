@@ -19,22 +19,23 @@ import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class ArchetypeVersionCompleter implements UICompleter<String> {
 
-    private List<String> archetypeVersions = new ArrayList<>();
+    // versions are looked up on every completion, so proposals pick up versions resolved in the background
+    private final Supplier<List<String>> archetypeVersions;
 
-    public ArchetypeVersionCompleter(List<String> archetypeVersions) {
+    public ArchetypeVersionCompleter(Supplier<List<String>> archetypeVersions) {
         this.archetypeVersions = archetypeVersions;
     }
 
     @Override
     public Iterable<String> getCompletionProposals(UIContext context, InputComponent<?, String> input, String value) {
-        return archetypeVersions.stream()
-            .filter(a -> a.startsWith(value))
+        return archetypeVersions.get().stream()
+            .filter(a -> value == null || a.startsWith(value))
             .collect(Collectors.toList());
     }
 }
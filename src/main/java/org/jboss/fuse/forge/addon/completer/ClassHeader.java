@@ -0,0 +1,192 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.completer;
+
+/**
+ * Reads what the completers need to know about a class straight from its class file bytes, without loading it:
+ * the class access flags and whether it has public methods. The constant pool is only skipped over, except
+ * for peeking at method names to leave out constructors and static initializers.
+ * <p>
+ * The result is a compact set of flags, stored with each class name in the {@link ClassNameIndex}.
+ */
+public final class ClassHeader {
+
+    public static final int PUBLIC = 1;
+    public static final int INTERFACE = 1 << 1;
+    public static final int ABSTRACT = 1 << 2;
+    public static final int SYNTHETIC = 1 << 3;
+    public static final int NESTED = 1 << 4;
+    public static final int PUBLIC_METHODS = 1 << 5;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_MODULE = 0x8000;
+
+    private ClassHeader() {
+    }
+
+    /**
+     * Returns whether a class with the given flags can be used as an API proxy class,
+     * that is a public top level type with public methods.
+     */
+    public static boolean isProxyCandidate(int flags) {
+        return (flags & (PUBLIC | PUBLIC_METHODS)) == (PUBLIC | PUBLIC_METHODS) && (flags & (SYNTHETIC | NESTED)) == 0;
+    }
+
+    /**
+     * Returns whether a class with the given flags is a service interface, that is a proxy candidate that is an interface.
+     */
+    public static boolean isServiceInterface(int flags) {
+        return isProxyCandidate(flags) && (flags & INTERFACE) != 0;
+    }
+
+    /**
+     * Returns whether a class with the given flags is a public, non synthetic type.
+     */
+    public static boolean isPublicType(int flags) {
+        return (flags & PUBLIC) != 0 && (flags & SYNTHETIC) == 0;
+    }
+
+    /**
+     * Returns the flags for the class with the given name and class file bytes, or 0 if the bytes are not a valid class file.
+     */
+    public static int read(String className, byte[] bytes) {
+        try {
+            return readFlags(bytes) | (className.indexOf('$') != -1 ? NESTED : 0);
+        } catch (IndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    private static int readFlags(byte[] bytes) {
+        if (readInt(bytes, 0) != MAGIC) {
+            return 0;
+        }
+
+        // constant pool, remembering where the utf8 entries are to look up method names
+        int count = readUnsignedShort(bytes, 8);
+        int[] utf8Offsets = new int[count];
+        int offset = 10;
+        for (int i = 1; i < count; i++) {
+            int tag = bytes[offset] & 0xff;
+            switch (tag) {
+            case 1: // utf8
+                utf8Offsets[i] = offset + 3;
+                offset += 3 + readUnsignedShort(bytes, offset + 1);
+                break;
+            case 5: // long
+            case 6: // double
+                offset += 9;
+                i++;
+                break;
+            case 3: // integer
+            case 4: // float
+            case 9: // field ref
+            case 10: // method ref
+            case 11: // interface method ref
+            case 12: // name and type
+            case 17: // dynamic
+            case 18: // invoke dynamic
+                offset += 5;
+                break;
+            case 15: // method handle
+                offset += 4;
+                break;
+            case 7: // class
+            case 8: // string
+            case 16: // method type
+            case 19: // module
+            case 20: // package
+                offset += 3;
+                break;
+            default:
+                return 0;
+            }
+        }
+
+        int access = readUnsignedShort(bytes, offset);
+        if ((access & (ACC_ANNOTATION | ACC_MODULE)) != 0) {
+            return 0;
+        }
+
+        int flags = 0;
+        if ((access & ACC_PUBLIC) != 0) {
+            flags |= PUBLIC;
+        }
+        if ((access & ACC_INTERFACE) != 0) {
+            flags |= INTERFACE;
+        }
+        if ((access & ACC_ABSTRACT) != 0) {
+            flags |= ABSTRACT;
+        }
+        if ((access & ACC_SYNTHETIC) != 0) {
+            flags |= SYNTHETIC;
+        }
+
+        // skip this class, super class and interfaces
+        offset += 6;
+        int interfaces = readUnsignedShort(bytes, offset);
+        offset += 2 + 2 * interfaces;
+        if ((flags & (PUBLIC | INTERFACE)) == (PUBLIC | INTERFACE) && interfaces > 0) {
+            // public interface methods are inherited, so an interface extending others has them even if it declares none
+            return flags | PUBLIC_METHODS;
+        }
+
+        // skip fields
+        int fields = readUnsignedShort(bytes, offset);
+        offset += 2;
+        for (int i = 0; i < fields; i++) {
+            offset = skipMember(bytes, offset);
+        }
+
+        int methods = readUnsignedShort(bytes, offset);
+        offset += 2;
+        for (int i = 0; i < methods; i++) {
+            int methodAccess = readUnsignedShort(bytes, offset);
+            int nameOffset = utf8Offsets[readUnsignedShort(bytes, offset + 2)];
+            // <init> and <clinit> are the only method names starting with '<'
+            if ((methodAccess & ACC_PUBLIC) != 0 && (methodAccess & ACC_SYNTHETIC) == 0 && bytes[nameOffset] != '<') {
+                return flags | PUBLIC_METHODS;
+            }
+            offset = skipMember(bytes, offset);
+        }
+        return flags;
+    }
+
+    // skips a field or method, access flags, name, descriptor and attributes
+    private static int skipMember(byte[] bytes, int offset) {
+        int attributes = readUnsignedShort(bytes, offset + 6);
+        offset += 8;
+        for (int i = 0; i < attributes; i++) {
+            offset += 6 + readInt(bytes, offset + 2);
+        }
+        return offset;
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 8) | (bytes[offset + 1] & 0xff);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16)
+            | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+    }
+}
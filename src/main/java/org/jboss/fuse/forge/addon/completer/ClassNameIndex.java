@@ -0,0 +1,355 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.completer;
+
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+import org.jboss.forge.furnace.util.Streams;
+import org.jboss.fuse.forge.addon.util.CacheUtils;
+import org.jboss.fuse.forge.addon.util.DaemonThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+/**
+ * Class names contained in dependency jars, kept in memory and in a compact binary form under the Forge user directory,
+ * keyed on artifact coordinate and jar checksum, so a dependency jar is only scanned once.
+ * <p>
+ * Class names are stored sorted and front coded, each name only recording what differs from the previous one,
+ * together with the {@link ClassHeader} flags read from its class file so callers can filter on the kind of class.
+ * Dependency trees are resolved and their jars scanned concurrently, on a pool bounded by the available processors.
+ */
+@Singleton
+public class ClassNameIndex {
+
+    private static final Logger LOG = Logger.getLogger(ClassNameIndex.class.getName());
+
+    private static final int MAGIC = 0xC1A55E5;
+    private static final int FORMAT_VERSION = 3;
+
+    private static final IntPredicate ALL_CLASSES = flags -> true;
+
+    private final File cacheDir;
+    private final Map<String, IndexedJar> jars = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public ClassNameIndex() {
+        this(CacheUtils.getCacheDirectory("class-names"), Runtime.getRuntime().availableProcessors());
+    }
+
+    ClassNameIndex(File cacheDir, int threads) {
+        this.cacheDir = cacheDir;
+        this.executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("fuse-forge-class-names"));
+    }
+
+    void shutdown(@Observes @Local PreShutdown event) {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the sorted class names in the jar of the given artifact, scanning the jar only when it has not
+     * been indexed yet or its contents have changed since.
+     */
+    public List<String> getClassNames(Coordinate coordinate, File jar) throws IOException {
+        return getClassNames(coordinate, jar, ALL_CLASSES);
+    }
+
+    /**
+     * Returns the sorted names of the classes in the jar of the given artifact whose {@link ClassHeader} flags
+     * are accepted by the filter, see {@link #getClassNames(Coordinate, File)}.
+     */
+    public List<String> getClassNames(Coordinate coordinate, File jar, IntPredicate filter) throws IOException {
+        IndexedJar indexed = getIndexedJar(coordinate, jar);
+        if (filter == ALL_CLASSES) {
+            return indexed.classNameList;
+        }
+
+        List<String> classNames = new ArrayList<>();
+        for (int i = 0; i < indexed.classNames.length; i++) {
+            if (filter.test(indexed.flags[i])) {
+                classNames.add(indexed.classNames[i]);
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Indexes the jars in the dependency trees of the given artifacts in the background. The tree resolver returns
+     * the jar of every artifact in the tree of a root artifact, including the root itself. The accepted class names
+     * of each jar are handed to the consumer as soon as it is indexed, and jars shared by several trees only once.
+     * Artifacts that cannot be resolved or read are logged and skipped.
+     */
+    public CompletableFuture<Void> index(List<Coordinate> roots, Function<Coordinate, Map<Coordinate, File>> treeResolver,
+                                         IntPredicate filter, Consumer<List<String>> consumer) {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[roots.size()];
+        for (int i = 0; i < futures.length; i++) {
+            Coordinate root = roots.get(i);
+            futures[i] = CompletableFuture.supplyAsync(() -> resolveTree(root, treeResolver), executor)
+                .thenCompose(tree -> {
+                    List<CompletableFuture<Void>> indexed = new ArrayList<>();
+                    for (Map.Entry<Coordinate, File> entry : tree.entrySet()) {
+                        if (seen.add(toKey(entry.getKey()))) {
+                            indexed.add(CompletableFuture.runAsync(() -> index(entry.getKey(), entry.getValue(), filter, consumer), executor));
+                        }
+                    }
+                    return CompletableFuture.allOf(indexed.toArray(new CompletableFuture<?>[indexed.size()]));
+                });
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    private Map<Coordinate, File> resolveTree(Coordinate root, Function<Coordinate, Map<Coordinate, File>> treeResolver) {
+        try {
+            return treeResolver.apply(root);
+        } catch (RuntimeException e) {
+            LOG.warning("Unable to resolve dependencies of " + root + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private void index(Coordinate coordinate, File jar, IntPredicate filter, Consumer<List<String>> consumer) {
+        try {
+            consumer.accept(getClassNames(coordinate, jar, filter));
+        } catch (IOException | RuntimeException e) {
+            LOG.warning("Unable to index classes of " + coordinate + ": " + e.getMessage());
+        }
+    }
+
+    private IndexedJar getIndexedJar(Coordinate coordinate, File jar) throws IOException {
+        String key = toKey(coordinate);
+        IndexedJar indexed = jars.get(key);
+        if (indexed != null && indexed.isCurrent(jar)) {
+            return indexed;
+        }
+
+        File cacheFile = new File(cacheDir, key + ".bin");
+        CacheLookup lookup = readCacheFile(cacheFile, jar);
+        indexed = lookup.indexed;
+        if (indexed == null) {
+            // reuses the checksum already computed when the cached one no longer matched
+            indexed = scan(jar, lookup.checksum != null ? lookup.checksum : CacheUtils.checksum(jar));
+            writeCacheFile(cacheFile, indexed);
+        } else if (lookup.checksum != null) {
+            // same contents with a new length or timestamp, recorded so the jar is not hashed on every lookup
+            writeCacheFile(cacheFile, indexed);
+        }
+
+        jars.put(key, indexed);
+        return indexed;
+    }
+
+    private static IndexedJar scan(File jar, String checksum) throws IOException {
+        Map<String, Integer> classes = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                // skips versioned copies of classes in multi release jars
+                if (!entry.isDirectory() && name.endsWith(".class") && !name.startsWith("META-INF/")) {
+                    String className = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        classes.put(className, ClassHeader.read(className, readFully(in, entry.getSize())));
+                    }
+                }
+            }
+        }
+
+        String[] classNames = new String[classes.size()];
+        byte[] flags = new byte[classes.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : classes.entrySet()) {
+            classNames[i] = entry.getKey();
+            flags[i++] = entry.getValue().byteValue();
+        }
+        return new IndexedJar(jar.length(), jar.lastModified(), checksum, classNames, flags);
+    }
+
+    private static byte[] readFully(InputStream in, long size) throws IOException {
+        if (size < 0) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Streams.write(in, out);
+            return out.toByteArray();
+        }
+
+        byte[] bytes = new byte[(int) size];
+        new DataInputStream(in).readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads the cached index of the jar. The jar checksum is only computed when its length or timestamp no longer
+     * match the cached ones, and is returned with the lookup whether or not it still matches the cached checksum.
+     */
+    private CacheLookup readCacheFile(File cacheFile, File jar) {
+        if (!cacheFile.isFile()) {
+            return CacheLookup.MISS;
+        }
+
+        String jarChecksum = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return CacheLookup.MISS;
+            }
+
+            long length = in.readLong();
+            long lastModified = in.readLong();
+            String checksum = in.readUTF();
+            if (length != jar.length() || lastModified != jar.lastModified()) {
+                jarChecksum = CacheUtils.checksum(jar);
+                if (!checksum.equals(jarChecksum)) {
+                    return new CacheLookup(null, jarChecksum);
+                }
+                length = jar.length();
+                lastModified = jar.lastModified();
+            }
+
+            int count = in.readInt();
+            String[] classNames = new String[count];
+            byte[] flags = new byte[count];
+            String previous = "";
+            for (int i = 0; i < count; i++) {
+                flags[i] = in.readByte();
+                int shared = in.readUnsignedShort();
+                previous = previous.substring(0, shared) + in.readUTF();
+                classNames[i] = previous;
+            }
+            return new CacheLookup(new IndexedJar(length, lastModified, checksum, classNames, flags), jarChecksum);
+        } catch (IOException | RuntimeException e) {
+            LOG.warning("Ignoring unreadable class name index " + cacheFile + ": " + e.getMessage());
+            cacheFile.delete();
+            return new CacheLookup(null, jarChecksum);
+        }
+    }
+
+    private void writeCacheFile(File cacheFile, IndexedJar indexed) {
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            LOG.warning("Unable to create class name index directory " + cacheDir);
+            return;
+        }
+
+        File tmp = null;
+        try {
+            // jars may be indexed concurrently, so every write gets its own temporary file
+            tmp = File.createTempFile(cacheFile.getName(), ".tmp", cacheDir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(indexed.length);
+                out.writeLong(indexed.lastModified);
+                out.writeUTF(indexed.checksum);
+                out.writeInt(indexed.classNames.length);
+                String previous = "";
+                for (int i = 0; i < indexed.classNames.length; i++) {
+                    String className = indexed.classNames[i];
+                    int shared = sharedPrefixLength(previous, className);
+                    out.writeByte(indexed.flags[i]);
+                    out.writeShort(shared);
+                    out.writeUTF(className.substring(shared));
+                    previous = className;
+                }
+            }
+            CacheUtils.replace(tmp, cacheFile);
+        } catch (IOException e) {
+            LOG.warning("Unable to write class name index " + cacheFile + ": " + e.getMessage());
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static int sharedPrefixLength(String a, String b) {
+        int max = Math.min(Math.min(a.length(), b.length()), 0xffff);
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String toKey(Coordinate coordinate) {
+        StringBuilder key = new StringBuilder(coordinate.getGroupId()).append('_').append(coordinate.getArtifactId());
+        if (coordinate.getClassifier() != null && !coordinate.getClassifier().isEmpty()) {
+            key.append('_').append(coordinate.getClassifier());
+        }
+        key.append('_').append(coordinate.getVersion());
+        return key.toString().replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static final class CacheLookup {
+        private static final CacheLookup MISS = new CacheLookup(null, null);
+
+        private final IndexedJar indexed;
+        private final String checksum;
+
+        private CacheLookup(IndexedJar indexed, String checksum) {
+            this.indexed = indexed;
+            this.checksum = checksum;
+        }
+    }
+
+    private static final class IndexedJar {
+        private final long length;
+        private final long lastModified;
+        private final String checksum;
+        private final String[] classNames;
+        private final byte[] flags;
+        private final List<String> classNameList;
+
+        private IndexedJar(long length, long lastModified, String checksum, String[] classNames, byte[] flags) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+            this.classNames = classNames;
+            this.flags = flags;
+            this.classNameList = Collections.unmodifiableList(Arrays.asList(classNames));
+        }
+
+        private boolean isCurrent(File jar) {
+            return jar.length() == length && jar.lastModified() == lastModified;
+        }
+    }
+}
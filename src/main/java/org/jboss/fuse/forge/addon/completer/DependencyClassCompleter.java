@@ -15,14 +15,14 @@
  */
 package org.jboss.fuse.forge.addon.completer;
 
-import java.io.IOException;
+import java.io.File;
 import java.util.ArrayList;
-import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntPredicate;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.jboss.forge.addon.dependencies.Coordinate;
 import org.jboss.forge.addon.dependencies.Dependency;
@@ -35,61 +35,83 @@ import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
 
 /**
- * Completer for API Proxy class.
+ * Completer for classes in the project dependencies, such as the API proxy class.
  */
 public class DependencyClassCompleter implements UICompleter<String> {
 
     private static final Pattern EXCLUDED_GROUPS = Pattern.compile("(org.apache.camel)|(org.slf4j)|(org.apache.log4j)");
 
-    private final List<String> classNames;
+    /**
+     * Default maximum number of proposals returned for a value.
+     */
+    public static final int DEFAULT_MAX_PROPOSALS = 1000;
 
-    public DependencyClassCompleter(DependencyResolver dependencyResolver, Project project) throws IOException {
+    // one index per dependency jar, added as the jars are indexed in the background
+    private final List<SortedPrefixIndex> classNames = new CopyOnWriteArrayList<>();
+    private final int maxProposals;
 
-        classNames = new ArrayList<>();
+    public DependencyClassCompleter(DependencyResolver dependencyResolver, ClassNameIndex classNameIndex, Project project,
+                                    IntPredicate classFilter) {
+        this(dependencyResolver, classNameIndex, project, classFilter, DEFAULT_MAX_PROPOSALS);
+    }
+
+    /**
+     * Creates a completer for the classes in the dependency trees of the project managed dependencies, limited to
+     * the classes whose {@link ClassHeader} flags are accepted by the given filter.
+     */
+    public DependencyClassCompleter(DependencyResolver dependencyResolver, ClassNameIndex classNameIndex, Project project,
+                                    IntPredicate classFilter, int maxProposals) {
+
+        this.maxProposals = maxProposals;
+
+        List<Coordinate> coordinates = getDependencyCoordinates(project);
+
+        // resolve the dependency trees and scan the jars in the background, proposals include the jars indexed so far
+        classNameIndex.index(coordinates, coordinate -> resolveTree(dependencyResolver, coordinate), classFilter,
+            names -> classNames.add(new SortedPrefixIndex(names)));
+    }
 
+    /**
+     * Returns the coordinates of the project managed dependencies, leaving out Camel, slf4j and log4j.
+     */
+    public static List<Coordinate> getDependencyCoordinates(Project project) {
+        List<Coordinate> coordinates = new ArrayList<>();
         List<Dependency> dependencies = project.getFacet(MavenDependencyFacet.class).getManagedDependencies();
         for (Dependency dependency : dependencies) {
             Coordinate coordinate = dependency.getCoordinate();
             // exclude camel, slf4j and log4j dependencies
             if (!EXCLUDED_GROUPS.matcher(coordinate.getGroupId()).find()) {
-            	DependencyQueryBuilder queryBuilder = DependencyQueryBuilder.create(coordinate);
-                try(JarFile jarFile = new JarFile(dependencyResolver.resolveArtifact(queryBuilder).getArtifact().getFullyQualifiedName())){
-                    Enumeration<JarEntry> entries = jarFile.entries();
-                    while (entries.hasMoreElements()) {
-                        JarEntry entry = entries.nextElement();
-                        if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
-                            classNames.add(entry.getName().replace("/", ".").replace(".class", ""));
-                        }
-                    }
-                }
+                coordinates.add(coordinate);
             }
         }
+        return coordinates;
+    }
 
-/*
-        URL[] urLs = urlClassLoader.getURLs();
-        for (URL urL : urLs) {
-            String file = urL.getFile();
-            if (file != null && file.endsWith(".jar")) {
-                // open the jar and add list of classes
-                if (!"jar".equals(urL.getProtocol())) {
-                    urL = new URL("jar:" + urL.toString());
-                }
-
-                JarURLConnection jarURLConnection = (JarURLConnection) urL.openConnection();
-                Enumeration<JarEntry> entries = jarURLConnection.getJarFile().entries();
-                while (entries.hasMoreElements()) {
-                    JarEntry entry = entries.nextElement();
-                    if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
-                        classNames.add(entry.getName().replace("/", ".").replace(".class", ""));
-                    }
-                }
+    /**
+     * Returns the jars in the dependency tree of the artifact, including its own, leaving out Camel, slf4j and log4j.
+     */
+    public static Map<Coordinate, File> resolveTree(DependencyResolver dependencyResolver, Coordinate coordinate) {
+        Map<Coordinate, File> jars = new LinkedHashMap<>();
+        DependencyQueryBuilder queryBuilder = DependencyQueryBuilder.create(coordinate);
+        addJar(jars, dependencyResolver.resolveArtifact(queryBuilder));
+        for (Dependency dependency : dependencyResolver.resolveDependencies(queryBuilder)) {
+            if (!EXCLUDED_GROUPS.matcher(dependency.getCoordinate().getGroupId()).find()) {
+                addJar(jars, dependency);
             }
         }
-*/
+        return jars;
+    }
+
+    private static void addJar(Map<Coordinate, File> jars, Dependency dependency) {
+        File jar = new File(dependency.getArtifact().getFullyQualifiedName());
+        // skips pom only dependencies
+        if (jar.getName().endsWith(".jar")) {
+            jars.put(dependency.getCoordinate(), jar);
+        }
     }
 
     @Override
     public Iterable<String> getCompletionProposals(UIContext context, InputComponent<?, String> input, String value) {
-        return classNames.stream().filter(name -> value == null || name.startsWith(value)).collect(Collectors.toList());
+        return SortedPrefixIndex.find(new ArrayList<>(classNames), value, maxProposals);
     }
 }
@@ -0,0 +1,158 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.completer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Sorted, duplicate free array of strings answering prefix queries with a binary search for the first match.
+ * Matches are produced lazily, so a query only touches the entries it returns. Several indexes can be queried
+ * together, which merges their matches without building a combined index.
+ * <p>
+ * Values are not interned. The index references the strings it is given, and the class names come from the
+ * per jar lists of {@link ClassNameIndex}, which already hold each name once; a name only repeats when
+ * several jars contain the same class.
+ */
+public final class SortedPrefixIndex {
+
+    private final String[] values;
+
+    public SortedPrefixIndex(Collection<String> values) {
+        String[] sorted = values.toArray(new String[values.size()]);
+        Arrays.sort(sorted);
+
+        int size = 0;
+        for (String value : sorted) {
+            if (size == 0 || !value.equals(sorted[size - 1])) {
+                sorted[size++] = value;
+            }
+        }
+        this.values = size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns up to {@code limit} values starting with the given prefix in sorted order, all values if the prefix is null.
+     */
+    public Iterable<String> find(String prefix, int limit) {
+        String match = prefix == null ? "" : prefix;
+        int first = firstIndexOf(match);
+        return () -> new Iterator<String>() {
+            private int index = first;
+            private int remaining = limit;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0 && index < values.length && values[index].startsWith(match);
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return values[index++];
+            }
+        };
+    }
+
+    // index of the first value not less than the prefix, which is where matches start
+    private int firstIndexOf(String prefix) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns up to {@code limit} values of any of the given indexes starting with the given prefix, in sorted order
+     * and without duplicates.
+     */
+    public static Iterable<String> find(Collection<SortedPrefixIndex> indexes, String prefix, int limit) {
+        return () -> {
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, indexes.size()));
+            for (SortedPrefixIndex index : indexes) {
+                Iterator<String> matches = index.find(prefix, limit).iterator();
+                if (matches.hasNext()) {
+                    cursors.add(new Cursor(matches));
+                }
+            }
+            return new Iterator<String>() {
+                private int remaining = limit;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0 && !cursors.isEmpty();
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    remaining--;
+                    String value = cursors.peek().current;
+                    // advance every index positioned on the same value
+                    while (!cursors.isEmpty() && cursors.peek().current.equals(value)) {
+                        Cursor cursor = cursors.poll();
+                        if (cursor.advance()) {
+                            cursors.add(cursor);
+                        }
+                    }
+                    return value;
+                }
+            };
+        };
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Iterator<String> matches;
+        private String current;
+
+        private Cursor(Iterator<String> matches) {
+            this.matches = matches;
+            this.current = matches.next();
+        }
+
+        private boolean advance() {
+            if (matches.hasNext()) {
+                current = matches.next();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return current.compareTo(other.current);
+        }
+    }
+}
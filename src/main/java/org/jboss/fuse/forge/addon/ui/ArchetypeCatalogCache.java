@@ -0,0 +1,198 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.apache.maven.archetype.catalog.Archetype;
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+import org.jboss.fuse.forge.addon.util.CacheUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import javax.inject.Singleton;
+
+/**
+ * Keeps parsed archetype catalogs in memory and in a compact binary form under the Forge user directory,
+ * keyed on catalog version and catalog jar checksum, so a catalog jar is only ever parsed once.
+ * Only archetypes with a valid group id are kept.
+ */
+@Singleton
+public class ArchetypeCatalogCache {
+
+    private static final Logger LOG = Logger.getLogger(ArchetypeCatalogCache.class.getName());
+
+    private static final int MAGIC = 0xCA7A1065;
+    private static final int FORMAT_VERSION = 2;
+
+    private final File cacheDir;
+    private final Map<String, CachedCatalog> catalogs = new ConcurrentHashMap<>();
+    private final ArchetypeCatalogJarReader jarReader = new ArchetypeCatalogJarReader(
+            (groupId, artifactId, version) -> ArchetypeCatalogIndex.isValidGroupId(groupId, version));
+
+    public ArchetypeCatalogCache() {
+        this(CacheUtils.getCacheDirectory("archetype-catalogs"));
+    }
+
+    ArchetypeCatalogCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Returns the catalog for the given version, only calling the supplier to locate the catalog jar
+     * when the version has not been loaded yet or its jar has changed since.
+     */
+    public ArchetypeCatalog getCatalog(String version, Supplier<File> catalogJar) {
+        CachedCatalog cached = getCachedCatalog(version, catalogJar);
+        return cached != null ? cached.catalog : null;
+    }
+
+    /**
+     * Returns the archetype index of the catalog for the given version, see {@link #getCatalog(String, Supplier)}.
+     */
+    public ArchetypeCatalogIndex getIndex(String version, Supplier<File> catalogJar) {
+        CachedCatalog cached = getCachedCatalog(version, catalogJar);
+        return cached != null ? cached.index : null;
+    }
+
+    private CachedCatalog getCachedCatalog(String version, Supplier<File> catalogJar) {
+        CachedCatalog cached = catalogs.get(version);
+        if (cached != null && cached.isCurrent()) {
+            return cached;
+        }
+
+        File jar = catalogJar.get();
+        if (jar == null || !jar.isFile()) {
+            return null;
+        }
+
+        try {
+            String checksum = CacheUtils.checksum(jar);
+            File cacheFile = new File(cacheDir, version + "-" + checksum + ".bin");
+
+            ArchetypeCatalog catalog = readCacheFile(cacheFile);
+            if (catalog == null) {
+                catalog = jarReader.read(jar);
+                if (catalog == null) {
+                    return null;
+                }
+                writeCacheFile(cacheFile, catalog);
+            }
+
+            cached = new CachedCatalog(jar, catalog);
+            catalogs.put(version, cached);
+            return cached;
+        } catch (Exception e) {
+            LOG.warning("Unable to resolve archetype catalog: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private ArchetypeCatalog readCacheFile(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            ArchetypeCatalog catalog = new ArchetypeCatalog();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Archetype archetype = new Archetype();
+                archetype.setGroupId(readString(in));
+                archetype.setArtifactId(readString(in));
+                archetype.setVersion(readString(in));
+                archetype.setRepository(readString(in));
+                archetype.setDescription(readString(in));
+                catalog.addArchetype(archetype);
+            }
+            return catalog;
+        } catch (IOException e) {
+            LOG.warning("Ignoring unreadable archetype catalog cache " + cacheFile + ": " + e.getMessage());
+            cacheFile.delete();
+            return null;
+        }
+    }
+
+    private void writeCacheFile(File cacheFile, ArchetypeCatalog catalog) {
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            LOG.warning("Unable to create archetype catalog cache directory " + cacheDir);
+            return;
+        }
+
+        File tmp = new File(cacheDir, cacheFile.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(catalog.getArchetypes().size());
+                for (Archetype archetype : catalog.getArchetypes()) {
+                    writeString(out, archetype.getGroupId());
+                    writeString(out, archetype.getArtifactId());
+                    writeString(out, archetype.getVersion());
+                    writeString(out, archetype.getRepository());
+                    writeString(out, archetype.getDescription());
+                }
+            }
+            CacheUtils.replace(tmp, cacheFile);
+        } catch (IOException e) {
+            LOG.warning("Unable to write archetype catalog cache " + cacheFile + ": " + e.getMessage());
+            tmp.delete();
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static final class CachedCatalog {
+        private final File jar;
+        private final long length;
+        private final long lastModified;
+        private final ArchetypeCatalog catalog;
+        private final ArchetypeCatalogIndex index;
+
+        private CachedCatalog(File jar, ArchetypeCatalog catalog) {
+            this.jar = jar;
+            this.length = jar.length();
+            this.lastModified = jar.lastModified();
+            this.catalog = catalog;
+            this.index = new ArchetypeCatalogIndex(catalog);
+        }
+
+        private boolean isCurrent() {
+            return jar.length() == length && jar.lastModified() == lastModified;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.apache.maven.archetype.catalog.Archetype;
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+import org.jboss.forge.furnace.util.Strings;
+import org.jboss.fuse.forge.addon.util.MavenUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Valid archetypes of a catalog, grouped by {@link FuseProjectCategory}.
+ * Built once per catalog so the wizard choice lists are plain lookups.
+ */
+public class ArchetypeCatalogIndex {
+
+    public static final String REDHAT_ARCHETYPES_GROUP_ID = "org.jboss.fuse.fis.archetypes";
+    public static final String COMMUNITY_ARCHETYPES_GROUP_ID = "io.fabric8.archetypes";
+
+    private final List<Archetype> all = new ArrayList<>();
+    private final Map<FuseProjectCategory, List<Archetype>> byCategory = new EnumMap<>(FuseProjectCategory.class);
+
+    public ArchetypeCatalogIndex(ArchetypeCatalog catalog) {
+        for (FuseProjectCategory category : FuseProjectCategory.values()) {
+            byCategory.put(category, new ArrayList<>());
+        }
+
+        for (Archetype archetype : catalog.getArchetypes()) {
+            if (!isValidGroupId(archetype.getGroupId(), archetype.getVersion())) {
+                continue;
+            }
+
+            all.add(archetype);
+            for (FuseProjectCategory category : FuseProjectCategory.values()) {
+                if (category.matches(archetype.getArtifactId())) {
+                    byCategory.get(category).add(archetype);
+                }
+            }
+        }
+    }
+
+    /**
+     * Red Hat builds of the archetypes must come from the Red Hat group id, community builds from the fabric8 one.
+     */
+    public static boolean isValidGroupId(String groupId, String version) {
+        String groupIdMatch = MavenUtils.isRedhatVersion(version) ? REDHAT_ARCHETYPES_GROUP_ID : COMMUNITY_ARCHETYPES_GROUP_ID;
+        return groupIdMatch.equals(groupId);
+    }
+
+    public List<Archetype> getArchetypes() {
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Returns the valid archetypes for the given project type name, or all valid archetypes if no type is given.
+     */
+    public List<Archetype> getArchetypes(String projectType) {
+        if (Strings.isNullOrEmpty(projectType)) {
+            return getArchetypes();
+        }
+
+        FuseProjectCategory category = FuseProjectCategory.fromName(projectType);
+        return category != null ? getArchetypes(category) : Collections.emptyList();
+    }
+
+    public List<Archetype> getArchetypes(FuseProjectCategory category) {
+        return Collections.unmodifiableList(byCategory.get(category));
+    }
+
+}
@@ -0,0 +1,57 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the archetype catalog straight out of the catalog jar. The entry is looked up in the jar's central
+ * directory and streamed into the parser, without setting up a class loader over the jar.
+ */
+public class ArchetypeCatalogJarReader {
+
+    public static final String CATALOG_ENTRY = "archetype-catalog.xml";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ArchetypeCatalogStaxReader.ArchetypeFilter filter;
+
+    public ArchetypeCatalogJarReader(ArchetypeCatalogStaxReader.ArchetypeFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the parsed catalog with the archetypes accepted by the filter, or null if the jar does not contain a catalog.
+     */
+    public ArchetypeCatalog read(File jar) throws Exception {
+        try (ZipFile zipFile = new ZipFile(jar)) {
+            ZipEntry entry = zipFile.getEntry(CATALOG_ENTRY);
+            if (entry == null) {
+                return null;
+            }
+
+            try (InputStream in = new BufferedInputStream(zipFile.getInputStream(entry), BUFFER_SIZE)) {
+                return new ArchetypeCatalogStaxReader(filter).read(in);
+            }
+        }
+    }
+}
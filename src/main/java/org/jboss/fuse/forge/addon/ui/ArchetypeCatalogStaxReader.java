@@ -0,0 +1,114 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.apache.maven.archetype.catalog.Archetype;
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+
+import java.io.InputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming archetype catalog parser. Archetype entries are filtered while parsing, and {@link Archetype}
+ * objects are only created for the entries that pass the filter.
+ */
+public class ArchetypeCatalogStaxReader {
+
+    /**
+     * Decides whether a catalog entry is kept, based on its coordinates.
+     */
+    public interface ArchetypeFilter {
+        boolean accept(String groupId, String artifactId, String version);
+    }
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final ArchetypeFilter filter;
+
+    public ArchetypeCatalogStaxReader(ArchetypeFilter filter) {
+        this.filter = filter;
+    }
+
+    public ArchetypeCatalog read(InputStream in) throws XMLStreamException {
+        ArchetypeCatalog catalog = new ArchetypeCatalog();
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            String groupId = null;
+            String artifactId = null;
+            String version = null;
+            String repository = null;
+            String description = null;
+            boolean inArchetype = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("archetype".equals(name)) {
+                        inArchetype = true;
+                        groupId = artifactId = version = repository = description = null;
+                    } else if (inArchetype) {
+                        switch (name) {
+                        case "groupId":
+                            groupId = reader.getElementText().trim();
+                            break;
+                        case "artifactId":
+                            artifactId = reader.getElementText().trim();
+                            break;
+                        case "version":
+                            version = reader.getElementText().trim();
+                            break;
+                        case "repository":
+                            repository = reader.getElementText().trim();
+                            break;
+                        case "description":
+                            description = reader.getElementText().trim();
+                            break;
+                        default:
+                            // goals and properties are not used by the wizard
+                            break;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && inArchetype && "archetype".equals(reader.getLocalName())) {
+                    inArchetype = false;
+                    if (groupId != null && artifactId != null && version != null && filter.accept(groupId, artifactId, version)) {
+                        Archetype archetype = new Archetype();
+                        archetype.setGroupId(groupId);
+                        archetype.setArtifactId(artifactId);
+                        archetype.setVersion(version);
+                        archetype.setRepository(repository);
+                        archetype.setDescription(description);
+                        catalog.addArchetype(archetype);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return catalog;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.DependencyResolver;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PostStartup;
+import org.jboss.forge.furnace.event.PreShutdown;
+import org.jboss.fuse.forge.addon.util.CacheUtils;
+import org.jboss.fuse.forge.addon.util.DaemonThreadFactory;
+import org.jboss.fuse.forge.addon.util.MavenUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import static org.jboss.fuse.forge.addon.ui.FuseProjectSetupStep.ARCHETYPE_CATALOG_ARTIFACT_ID;
+import static org.jboss.fuse.forge.addon.ui.FuseProjectSetupStep.ARCHETYPE_CATALOG_GROUP_ID;
+
+/**
+ * Archetype catalog versions shared across wizard invocations. Resolution starts in the background when the
+ * addon starts, and the last known versions are kept on disk so the wizard can render before it completes.
+ */
+@Singleton
+public class ArchetypeCatalogVersions {
+
+    private static final Logger LOG = Logger.getLogger(ArchetypeCatalogVersions.class.getName());
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("fuse-forge-catalog-versions"));
+    private final File versionsFile;
+
+    private volatile List<String> versions;
+    private CompletableFuture<List<String>> refresh;
+
+    @Inject
+    private DependencyResolver resolver;
+
+    public ArchetypeCatalogVersions() {
+        this(new File(CacheUtils.getCacheDirectory("archetype-catalogs"), "versions.txt"));
+    }
+
+    ArchetypeCatalogVersions(File versionsFile) {
+        this.versionsFile = versionsFile;
+        this.versions = readVersions();
+    }
+
+    void startup(@Observes @Local PostStartup event) {
+        refresh(resolver);
+    }
+
+    void shutdown(@Observes @Local PreShutdown event) {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the last known catalog versions, which may be empty if none were resolved yet.
+     */
+    public List<String> getVersions() {
+        return versions;
+    }
+
+    /**
+     * Returns the last known catalog versions, waiting for the given refresh if there are none yet.
+     */
+    public List<String> getVersions(CompletableFuture<List<String>> refresh) {
+        if (versions.isEmpty()) {
+            refresh.join();
+        }
+        return versions;
+    }
+
+    /**
+     * Checks the version against the last known versions, which a completed refresh has already updated. Never
+     * waits for a running refresh, so a version only published since the last resolution is unknown until it completes.
+     */
+    public boolean isKnownVersion(String version) {
+        return versions.contains(version);
+    }
+
+    /**
+     * Returns whether a resolution of the catalog versions is still running in the background.
+     */
+    public synchronized boolean isRefreshing() {
+        return refresh != null && !refresh.isDone();
+    }
+
+    /**
+     * Starts resolving the catalog versions in the background, unless a resolution is already running.
+     */
+    public synchronized CompletableFuture<List<String>> refresh(DependencyResolver resolver) {
+        if (refresh == null || refresh.isDone()) {
+            refresh = CompletableFuture.supplyAsync(() -> resolveVersions(resolver), executor);
+        }
+        return refresh;
+    }
+
+    private List<String> resolveVersions(DependencyResolver resolver) {
+        try {
+            Coordinate coordinate = MavenUtils.createCoordinate(ARCHETYPE_CATALOG_GROUP_ID, ARCHETYPE_CATALOG_ARTIFACT_ID);
+            List<String> resolved = MavenUtils.resolveVersions(resolver, coordinate);
+            if (!resolved.isEmpty()) {
+                versions = Collections.unmodifiableList(resolved);
+                writeVersions(resolved);
+            }
+        } catch (RuntimeException e) {
+            LOG.warning("Unable to resolve archetype catalog versions: " + e.getMessage());
+        }
+        return versions;
+    }
+
+    private List<String> readVersions() {
+        if (versionsFile.isFile()) {
+            try {
+                return Collections.unmodifiableList(Files.readAllLines(versionsFile.toPath(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOG.warning("Ignoring unreadable archetype catalog versions " + versionsFile + ": " + e.getMessage());
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private void writeVersions(List<String> resolved) {
+        File dir = versionsFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+
+        File tmp = new File(dir, versionsFile.getName() + ".tmp");
+        try {
+            Files.write(tmp.toPath(), resolved, StandardCharsets.UTF_8);
+            CacheUtils.replace(tmp, versionsFile);
+        } catch (IOException e) {
+            LOG.warning("Unable to write archetype catalog versions " + versionsFile + ": " + e.getMessage());
+            tmp.delete();
+        }
+    }
+}
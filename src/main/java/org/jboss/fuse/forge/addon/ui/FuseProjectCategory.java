@@ -34,4 +34,20 @@ public enum FuseProjectCategory {
     public String getArtifactIdPrefix() {
         return this.artifactIdPrefix;
     }
+
+    public boolean matches(String artifactId) {
+        if (this == KARAF) {
+            return artifactId.startsWith(artifactIdPrefix);
+        }
+        return artifactId.contains(artifactIdPrefix);
+    }
+
+    public static FuseProjectCategory fromName(String name) {
+        for (FuseProjectCategory category : values()) {
+            if (category.name.equals(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
 }
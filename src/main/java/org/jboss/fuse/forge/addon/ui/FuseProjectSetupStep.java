@@ -16,14 +16,11 @@
 package org.jboss.fuse.forge.addon.ui;
 
 import org.apache.maven.archetype.catalog.Archetype;
-import org.apache.maven.archetype.catalog.ArchetypeCatalog;
-import org.apache.maven.archetype.catalog.io.xpp3.ArchetypeCatalogXpp3Reader;
 import org.jboss.forge.addon.dependencies.Coordinate;
 import org.jboss.forge.addon.dependencies.Dependency;
 import org.jboss.forge.addon.dependencies.DependencyRepository;
 import org.jboss.forge.addon.dependencies.DependencyResolver;
 import org.jboss.forge.addon.dependencies.builder.DependencyQueryBuilder;
-import org.jboss.forge.addon.maven.projects.archetype.ArchetypeHelper;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.facets.MetadataFacet;
@@ -34,6 +31,7 @@ import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
 import org.jboss.forge.addon.ui.context.UINavigationContext;
+import org.jboss.forge.addon.ui.context.UIValidationContext;
 import org.jboss.forge.addon.ui.input.UIInput;
 import org.jboss.forge.addon.ui.input.UISelectOne;
 import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
@@ -46,31 +44,31 @@ import org.jboss.forge.addon.ui.wizard.UIWizardStep;
 import org.jboss.forge.furnace.util.Strings;
 import org.jboss.fuse.forge.addon.completer.ArchetypeVersionCompleter;
 import org.jboss.fuse.forge.addon.util.MavenUtils;
+import org.jboss.fuse.forge.addon.util.VersionIndex;
 
 import java.io.File;
-import java.io.InputStream;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 
-import static org.jboss.fuse.forge.addon.ui.FuseProjectCategory.KARAF;
-import static org.jboss.fuse.forge.addon.ui.FuseProjectCategory.SPRING_BOOT;
-
 public class FuseProjectSetupStep extends AbstractUICommand implements UIWizardStep {
 
     public static final String ARCHETYPE_CATALOG_GROUP_ID = "io.fabric8.archetypes";
     public static final String ARCHETYPE_CATALOG_ARTIFACT_ID = "archetypes-catalog";
-    private static final Logger LOG = Logger.getLogger(FuseProjectSetupStep.class.getName());
 
     @Inject
     private DependencyResolver resolver;
 
+    @Inject
+    private ArchetypeCatalogCache catalogCache;
+
+    @Inject
+    private ArchetypeCatalogVersions catalogVersions;
+
     @Inject
     @WithAttributes(label = "Project type", required = false, description = "The type of project to create")
     private UISelectOne<String> fuseProjectType;
@@ -95,8 +93,8 @@ public class FuseProjectSetupStep extends AbstractUICommand implements UIWizardS
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        Coordinate coordinate = MavenUtils.createCoordinate(ARCHETYPE_CATALOG_GROUP_ID, ARCHETYPE_CATALOG_ARTIFACT_ID);
-        archetypeVersions = MavenUtils.resolveVersions(resolver, coordinate);
+        // render with the last known versions while fresh ones are resolved in the background
+        archetypeVersions = catalogVersions.getVersions(catalogVersions.refresh(resolver));
         if (archetypeVersions.isEmpty()) {
             throw new IllegalStateException(String.format("Missing archetype catalog %s:%s, please add JBoss Fuse Maven repository to your Maven configuration",
                 ARCHETYPE_CATALOG_GROUP_ID, ARCHETYPE_CATALOG_ARTIFACT_ID));
@@ -109,6 +107,16 @@ public class FuseProjectSetupStep extends AbstractUICommand implements UIWizardS
         builder.add(catalogVersion).add(fuseProjectType).add(archetype);
     }
 
+    @Override
+    public void validate(UIValidationContext context) {
+        // the archetype choices are computed on demand, so they pick up the versions once a refresh completes
+        String version = catalogVersion.getValue();
+        if (!Strings.isNullOrEmpty(version) && !catalogVersions.isKnownVersion(version)) {
+            String reason = catalogVersions.isRefreshing() ? "the catalog versions are still being resolved" : "no such catalog was found";
+            context.addValidationWarning(catalogVersion, String.format("Unknown archetype catalog version %s, %s", version, reason));
+        }
+    }
+
     @Override
     public NavigationResult next(UINavigationContext context) throws Exception {
         return null;
@@ -142,37 +150,17 @@ public class FuseProjectSetupStep extends AbstractUICommand implements UIWizardS
         MetadataFacet metadataFacet = project.getFacet(MetadataFacet.class);
         File fileRoot = project.getRoot().reify(DirectoryResource.class).getUnderlyingResourceObject();
 
-        ArchetypeHelper archetypeHelper = new ArchetypeHelper(artifact.getResourceInputStream(), fileRoot, metadataFacet.getProjectGroupName(),
-            metadataFacet.getProjectName(), metadataFacet.getProjectVersion()) {
-
-            // See: OSFUSE-349, until  super.removeInvalidHeaderCommentsAndProcessVelocityMacros actually
-            // does full velocity processing, patch support for the `#set( $H = '##' )` velocity macro
-            // that the archetypes are using.
-            @Override
-            protected String removeInvalidHeaderCommentsAndProcessVelocityMacros(String text) {
-                String answer = "";
-                for (String line : text.split("\r?\n")) {
-                    String l = line.trim();
-                    if (l.startsWith("##") || l.startsWith("#set(")) {
-                        continue; // skip over the preprocessor controls..
-                    }
-                    if (line.contains("${D}")) {
-                        line = line.replaceAll("\\$\\{D\\}", "\\$");
-                    }
-                    if (line.contains("${H}")) {
-                        line = line.replaceAll("\\$\\{H\\}", "##");
-                    }
-                    answer = answer + line + "\n";
-                }
-                return answer;
-            }
-        };
+        // expand on a worker pool sized to the available cores
+        File archetypeJar = new File(artifact.getFullyQualifiedName());
+        ParallelArchetypeHelper archetypeHelper = new ParallelArchetypeHelper(archetypeJar, fileRoot, metadataFacet.getProjectGroupName(),
+            metadataFacet.getProjectName(), metadataFacet.getProjectVersion(), Runtime.getRuntime().availableProcessors());
 
         JavaSourceFacet facet = project.getFacet(JavaSourceFacet.class);
         archetypeHelper.setPackageName(facet.getBasePackage());
         archetypeHelper.execute();
 
-        return Results.success("Created new JBoss Fuse project in: " + fileRoot.getPath());
+        return Results.success(String.format("Created new JBoss Fuse project in: %s (%d files)", fileRoot.getPath(),
+            archetypeHelper.getFileCount()));
     }
 
     private void configureProjectTypeInput() {
@@ -183,42 +171,18 @@ public class FuseProjectSetupStep extends AbstractUICommand implements UIWizardS
         fuseProjectType.setValueChoices(types);
         fuseProjectType.addValueChangeListener(valueChangeEvent -> {
             String newValue = String.valueOf(valueChangeEvent.getNewValue()).trim();
-            archetype.setValueChoices(() -> {
-                Set<Archetype> result = new LinkedHashSet<>();
-                if (isValidVersion(catalogVersion.getValue())) {
-                    ArchetypeCatalog archetypeCatalog = getCatalog();
-                    if (archetypeCatalog != null) {
-                        List<Archetype> archetypes = archetypeCatalog.getArchetypes();
-                        result.addAll(archetypes.stream()
-                            .filter(archetype -> isValidArchetype(archetype, newValue))
-                            .collect(Collectors.toList()));
-                    }
-                }
-                return result;
-            });
+            archetype.setValueChoices(() -> getArchetypes(catalogVersion.getValue(), newValue));
         });
     }
 
     private void configureCatalogVersionInput() {
         catalogVersion.setRequired(false)
             .setDefaultValue(getLatestCatalogVersion())
-            .setCompleter(new ArchetypeVersionCompleter(archetypeVersions));
+            .setCompleter(new ArchetypeVersionCompleter(catalogVersions::getVersions));
 
         catalogVersion.addValueChangeListener(valueChangeEvent -> {
             String version = String.valueOf(valueChangeEvent.getNewValue());
-            archetype.setValueChoices(() -> {
-                Set<Archetype> result = new LinkedHashSet<>();
-                if (isValidVersion(version)) {
-                    ArchetypeCatalog archetypeCatalog = getCatalog();
-                    if (archetypeCatalog != null) {
-                        List<Archetype> archetypes = archetypeCatalog.getArchetypes();
-                        result.addAll(archetypes.stream()
-                            .filter(archetype -> isValidArchetype(archetype, fuseProjectType.getValue()))
-                            .collect(Collectors.toList()));
-                    }
-                }
-                return result;
-            });
+            archetype.setValueChoices(() -> getArchetypes(version, fuseProjectType.getValue()));
         });
     }
 
@@ -233,71 +197,49 @@ public class FuseProjectSetupStep extends AbstractUICommand implements UIWizardS
             return value == null ? null : MavenUtils.formatArchetypeGav(value);
         });
 
-        ArchetypeCatalog archetypeCatalog = getCatalog();
-        if (archetypeCatalog != null) {
-            Set<Archetype> result = new LinkedHashSet<>();
-            List<Archetype> archetypes = archetypeCatalog.getArchetypes();
-            result.addAll(archetypes.stream()
-                    .filter(archetype -> isValidArchetype(archetype, null))
-                    .collect(Collectors.toList()));
-            archetype.setValueChoices(result);
+        ArchetypeCatalogIndex index = getCatalogIndex(catalogVersion.getValue());
+        if (index != null) {
+            archetype.setValueChoices(index.getArchetypes());
         }
     }
 
-    private boolean isValidArchetype(Archetype archetype, String projectType) {
-        String groupIdMatch = MavenUtils.isRedhatVersion(archetype.getVersion()) ? "org.jboss.fuse.fis.archetypes" : "io.fabric8.archetypes";
-        if (archetype.getGroupId().equals(groupIdMatch)) {
-            if (Strings.isNullOrEmpty(projectType)) {
-                return true;
-            }
-
-            String artifactId = archetype.getArtifactId();
-            if (projectType.equals(KARAF.getName()) && artifactId.startsWith(KARAF.getArtifactIdPrefix())) {
-                return true;
-            }
-
-            if (projectType.equals(SPRING_BOOT.getName()) && artifactId.contains(SPRING_BOOT.getArtifactIdPrefix())) {
-                return true;
+    private List<Archetype> getArchetypes(String version, String projectType) {
+        if (isValidVersion(version)) {
+            ArchetypeCatalogIndex index = getCatalogIndex(version);
+            if (index != null) {
+                return index.getArchetypes(projectType);
             }
         }
-        return false;
+        return Collections.emptyList();
     }
 
     private boolean isValidVersion(String version) {
-        return !Strings.isNullOrEmpty(version) && archetypeVersions.contains(version);
+        return !Strings.isNullOrEmpty(version) && catalogVersions.isKnownVersion(version);
     }
 
-    private ArchetypeCatalog getCatalog() {
+    private ArchetypeCatalogIndex getCatalogIndex(String version) {
+        return catalogCache.getIndex(version, () -> resolveCatalogJar(version));
+    }
+
+    private File resolveCatalogJar(String version) {
         Coordinate coordinate = MavenUtils.createCoordinate(ARCHETYPE_CATALOG_GROUP_ID, ARCHETYPE_CATALOG_ARTIFACT_ID,
-                catalogVersion.getValue(), "jar");
+                version, "jar");
 
         Dependency dependency = resolver.resolveArtifact(DependencyQueryBuilder.create(coordinate));
         if (dependency != null) {
-            try {
-                String name = dependency.getArtifact().getFullyQualifiedName();
-                URL url = new URL("file", null, name);
-                try(URLClassLoader classLoader = new URLClassLoader(new URL[]{url})) {
-                    InputStream inputStream = classLoader.getResourceAsStream("archetype-catalog.xml");
-                    if (inputStream != null) {
-                        return new ArchetypeCatalogXpp3Reader().read(inputStream);
-                    }
-                }
-            } catch (Exception e) {
-                LOG.warning("Unable to resolve archetype catalog: " + e.getMessage());
-            }
+            return new File(dependency.getArtifact().getFullyQualifiedName());
         }
         return null;
     }
 
     private String getLatestCatalogVersion() {
         if (Strings.isNullOrEmpty(latestCatalogVersion)) {
-            Stream<String> stream = archetypeVersions.stream()
-                .filter(v -> !MavenUtils.isRedhatVersion(v));
-
-            latestCatalogVersion = archetypeVersions.stream()
-                .filter(MavenUtils::isRedhatVersion)
-                .reduce((a, b) -> b)
-                .orElse(stream.reduce((a,b) -> b).orElseThrow(IllegalStateException::new));
+            // prefer the latest Red Hat version, whatever order the versions were resolved in
+            VersionIndex versions = new VersionIndex(archetypeVersions);
+            latestCatalogVersion = versions.getLatestRedhat() != null ? versions.getLatestRedhat() : versions.getLatest();
+            if (latestCatalogVersion == null) {
+                throw new IllegalStateException();
+            }
         }
         return latestCatalogVersion;
     }
@@ -0,0 +1,202 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.jboss.forge.furnace.util.Streams;
+import org.jboss.fuse.forge.addon.util.DaemonThreadFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Archetype helper that processes the archetype templates on a bounded worker pool.
+ * <p>
+ * Before the archetype is expanded, every template entry is read from the archetype jar and its
+ * transformation is handed to the pool, with the same replace properties the expansion will use for it.
+ * The expansion then writes the entries in jar order, picking up the transformed contents as they complete.
+ * <p>
+ * The jar is read from disk once and both passes unzip it from memory. The base helper only expands from a
+ * stream, so the entries are inflated twice; that is cheap next to the transformations.
+ * <p>
+ * {@code ArchetypeHelper} is deprecated, but still the helper Forge 3.5 expands archetypes with.
+ */
+@SuppressWarnings("deprecation")
+public class ParallelArchetypeHelper extends org.jboss.forge.addon.maven.projects.archetype.ArchetypeHelper {
+
+    // the layout the base helper expands from
+    private static final String ZIP_ENTRY_PREFIX = "archetype-resources/";
+    private static final String ARCHETYPE_METADATA = "META-INF/maven/archetype-metadata.xml";
+    private static final List<String> BINARY_SUFFIXES = Arrays.asList(".png", ".ico", ".gif", ".jpg", ".jpeg", ".bmp");
+
+    private final byte[] archetypeJar;
+    private final String groupId;
+    private final String artifactId;
+    private final int threads;
+    private final Map<String, Transformation> transformations = new ConcurrentHashMap<>();
+
+    private String packageName;
+    private Map<String, String> overrideProperties = Collections.emptyMap();
+    private int fileCount;
+
+    public ParallelArchetypeHelper(File archetypeJar, File outputDir, String groupId, String artifactId, String version,
+                                   int threads) throws IOException {
+        this(Files.readAllBytes(archetypeJar.toPath()), outputDir, groupId, artifactId, version, threads);
+    }
+
+    private ParallelArchetypeHelper(byte[] archetypeJar, File outputDir, String groupId, String artifactId, String version,
+                                    int threads) {
+        super(new ByteArrayInputStream(archetypeJar), outputDir, groupId, artifactId, version);
+        this.archetypeJar = archetypeJar;
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.threads = threads;
+    }
+
+    @Override
+    public void setPackageName(String packageName) {
+        super.setPackageName(packageName);
+        this.packageName = packageName;
+    }
+
+    @Override
+    public void setOverrideProperties(Map<String, String> overrideProperties) {
+        super.setOverrideProperties(overrideProperties);
+        this.overrideProperties = overrideProperties;
+    }
+
+    @Override
+    public int execute() throws IOException {
+        if (packageName == null || packageName.isEmpty()) {
+            setPackageName(groupId + "." + artifactId);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("fuse-forge-archetype"));
+        try {
+            submitTransformations(executor);
+            return super.execute();
+        } finally {
+            executor.shutdownNow();
+            transformations.clear();
+        }
+    }
+
+    /**
+     * Returns the number of files the last expansion created from archetype resources.
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    // See: OSFUSE-349, until  super.removeInvalidHeaderCommentsAndProcessVelocityMacros actually
+    // does full velocity processing, patch support for the `#set( $H = '##' )` velocity macro
+    // that the archetypes are using.
+    @Override
+    protected String removeInvalidHeaderCommentsAndProcessVelocityMacros(String text) {
+        return VelocityMacroPreprocessor.process(text);
+    }
+
+    @Override
+    protected String transformContents(String fileContents, Map<String, String> replaceProperties) {
+        Transformation transformation = transformations.get(fileContents);
+        if (transformation != null && transformation.replaceProperties.equals(replaceProperties)) {
+            try {
+                return transformation.result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // fall back to transforming in place, which reports the failure
+            }
+        }
+        return super.transformContents(fileContents, replaceProperties);
+    }
+
+    /**
+     * Walks the archetype jar in the order the expansion does, tracking the replace properties it will use.
+     */
+    private void submitTransformations(ExecutorService executor) throws IOException {
+        Map<String, String> replaceProperties = new HashMap<>();
+        fileCount = 0;
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archetypeJar))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory() || name == null) {
+                    continue;
+                }
+
+                if (name.startsWith(ZIP_ENTRY_PREFIX)) {
+                    fileCount++;
+                    if (!isBinary(name)) {
+                        String text = readEntry(zip);
+                        Map<String, String> properties = Collections.unmodifiableMap(new HashMap<>(replaceProperties));
+                        transformations.computeIfAbsent(text, t -> new Transformation(properties,
+                            executor.submit(() -> super.transformContents(t, properties))));
+                    }
+                } else if (ARCHETYPE_METADATA.equals(name)) {
+                    parseReplaceProperties(zip, replaceProperties);
+                    replaceProperties.putAll(overrideProperties);
+                }
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean isBinary(String name) {
+        for (String suffix : BINARY_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String readEntry(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Streams.write(in, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static final class Transformation {
+        private final Map<String, String> replaceProperties;
+        private final Future<String> result;
+
+        private Transformation(Map<String, String> replaceProperties, Future<String> result) {
+            this.replaceProperties = replaceProperties;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+/**
+ * Single pass replacement for the velocity handling the archetypes need (see OSFUSE-349): drops the
+ * {@code ##} comment and {@code #set(} lines and expands {@code ${D}} to {@code $} and {@code ${H}} to {@code ##}.
+ * <p>
+ * Lines are written straight to the output, so processing is linear in the size of the template.
+ * As with splitting on line breaks, lines end with {@code \n} and trailing empty lines are dropped.
+ */
+public final class VelocityMacroPreprocessor {
+
+    private VelocityMacroPreprocessor() {
+    }
+
+    public static String process(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        process(text, out);
+        return out.toString();
+    }
+
+    public static void process(String text, StringBuilder out) {
+        if (text.isEmpty()) {
+            out.append('\n');
+            return;
+        }
+
+        int length = text.length();
+        int pendingEmptyLines = 0;
+        int start = 0;
+        while (start < length) {
+            int newLine = text.indexOf('\n', start);
+            int end = newLine < 0 ? length : newLine;
+            if (newLine >= 0 && end > start && text.charAt(end - 1) == '\r') {
+                end--;
+            }
+
+            if (end == start) {
+                // only written once a non empty line follows, even a dropped one
+                pendingEmptyLines++;
+            } else {
+                for (; pendingEmptyLines > 0; pendingEmptyLines--) {
+                    out.append('\n');
+                }
+                if (!isDirective(text, start, end)) {
+                    appendLine(text, start, end, out);
+                    out.append('\n');
+                }
+            }
+
+            if (newLine < 0) {
+                break;
+            }
+            start = newLine + 1;
+        }
+    }
+
+    private static boolean isDirective(String text, int start, int end) {
+        int i = start;
+        while (i < end && text.charAt(i) <= ' ') {
+            i++;
+        }
+        return text.startsWith("##", i) || text.startsWith("#set(", i);
+    }
+
+    private static void appendLine(String text, int start, int end, StringBuilder out) {
+        int copyFrom = start;
+        for (int i = start; i + 3 < end; i++) {
+            if (text.charAt(i) == '$' && text.charAt(i + 1) == '{' && text.charAt(i + 3) == '}') {
+                char macro = text.charAt(i + 2);
+                if (macro == 'D' || macro == 'H') {
+                    out.append(text, copyFrom, i).append(macro == 'D' ? "$" : "##");
+                    i += 3;
+                    copyFrom = i + 1;
+                }
+            }
+        }
+        out.append(text, copyFrom, end);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Small in-memory cache whose entries expire a fixed time after they were loaded, holding at most a given number
+ * of entries and evicting the least recently used one beyond that.
+ * <p>
+ * Values are loaded outside of the cache lock, so a slow load does not block lookups of other keys.
+ */
+public class ExpiringCache<K, V> {
+
+    private final int maxSize;
+    private final long timeToLiveMillis;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries;
+
+    public ExpiringCache(int maxSize, long timeToLiveMillis) {
+        this(maxSize, timeToLiveMillis, System::currentTimeMillis);
+    }
+
+    ExpiringCache(int maxSize, long timeToLiveMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key, loading it when there is none or it has expired. Values rejected by
+     * the cacheable predicate, such as empty results, are returned without being cached.
+     */
+    public V get(K key, Function<K, V> loader, Predicate<V> cacheable) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expires > now) {
+                    return entry.value;
+                }
+                entries.remove(key);
+            }
+        }
+
+        V value = loader.apply(key);
+        if (value != null && cacheable.test(value)) {
+            synchronized (entries) {
+                entries.put(key, new Entry<>(value, now + timeToLiveMillis));
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached entries that have not expired yet.
+     */
+    public int size() {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext(); ) {
+                if (it.next().expires <= now) {
+                    it.remove();
+                }
+            }
+            return entries.size();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expires;
+
+        private Entry(V value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+}
@@ -17,7 +17,6 @@ package org.jboss.fuse.forge.addon.util;
 
 import org.apache.maven.archetype.catalog.Archetype;
 import org.jboss.forge.addon.dependencies.Coordinate;
-import org.jboss.forge.addon.dependencies.Dependency;
 import org.jboss.forge.addon.dependencies.DependencyResolver;
 import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
 import org.jboss.forge.addon.dependencies.builder.DependencyQueryBuilder;
@@ -25,53 +24,72 @@ import org.jboss.forge.addon.dependencies.util.CompositeDependencyFilter;
 import org.jboss.forge.addon.dependencies.util.NonSnapshotDependencyFilter;
 import org.jboss.forge.furnace.util.Predicate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class MavenUtils {
 
-    private static final Pattern REDHAT_VERSION_PATTERN = Pattern.compile("^.*\\.(redhat|fuse)-.*$");
-    private static final String[] BANNED_VERSIONS = {"2.2.0.redhat-053", "2.2.0.redhat-066", "2.2.0.redhat-073", "2.2.0.redhat-079"};
+    private static final Set<String> BANNED_VERSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "2.2.0.redhat-053", "2.2.0.redhat-066", "2.2.0.redhat-073", "2.2.0.redhat-079")));
 
+    // resolved non snapshot versions, shared by the wizard and commands of a session
+    private static final int VERSION_CACHE_SIZE = 256;
+    private static final long VERSION_CACHE_TTL = TimeUnit.MINUTES.toMillis(10);
+    private static final ExpiringCache<String, VersionIndex> VERSION_CACHE = new ExpiringCache<>(VERSION_CACHE_SIZE, VERSION_CACHE_TTL);
+
+    /**
+     * Returns the non snapshot versions of the artifact from oldest to latest, leaving out banned versions.
+     */
     public static List<String> resolveVersions(DependencyResolver resolver, Coordinate coordinate) {
-        List<String> bannedVersions = Arrays.asList(BANNED_VERSIONS);
-        List<Coordinate> versions = resolveVersions(resolver, coordinate, new NonSnapshotDependencyFilter());
-        return versions.stream()
-            .map(Coordinate::getVersion)
-            .filter(v -> !bannedVersions.contains(v))
-            .collect(Collectors.toList());
+        return new ArrayList<>(resolveVersionIndex(resolver, coordinate).getVersions());
     }
 
     public static String resolveLatestVersion(DependencyResolver resolver, Coordinate coordinate) {
-        Coordinate result = null;
-        List<Coordinate> versions = resolveVersions(resolver, coordinate, new NonSnapshotDependencyFilter());
-        if (!versions.isEmpty()) {
-            result = versions.get(versions.size() - 1);
-        }
-
-        return result != null ? result.getVersion() : "";
+        String result = resolveVersionIndex(resolver, coordinate).getLatest();
+        return result != null ? result : "";
     }
 
     public static String resolveLatestRedhatVersion(DependencyResolver resolver, Coordinate coordinate) {
-        List<String> bannedVersions = Arrays.asList(BANNED_VERSIONS);
-        Predicate<Dependency> predicate = dependency -> {
-            String version = dependency.getCoordinate().getVersion();
-            return isRedhatVersion(version) && !bannedVersions.contains(version);
-        };
-
-        List<Coordinate> versions = resolveVersions(resolver, coordinate, new NonSnapshotDependencyFilter(), predicate);
-        Coordinate result = null;
-        if (!versions.isEmpty()) {
-            result = versions.get(versions.size() - 1);
-        }
+        String result = resolveVersionIndex(resolver, coordinate).getLatestRedhat();
+        return result != null ? result : "";
+    }
 
-        return result != null ? result.getVersion() : "";
+    /**
+     * Returns the sorted index of the non snapshot versions of the artifact, leaving out banned versions.
+     */
+    public static VersionIndex resolveVersionIndex(DependencyResolver resolver, Coordinate coordinate) {
+        return VERSION_CACHE.get(toVersionCacheKey(coordinate), key -> {
+            List<String> versions = new ArrayList<>();
+            for (Coordinate version : resolveVersions(resolver, coordinate, new NonSnapshotDependencyFilter())) {
+                if (!BANNED_VERSIONS.contains(version.getVersion())) {
+                    versions.add(version.getVersion());
+                }
+            }
+            return new VersionIndex(versions);
+        }, index -> !index.isEmpty());
+    }
+
+    /**
+     * Drops the cached versions of the given artifact, so the next query resolves them again.
+     */
+    public static void invalidateVersions(Coordinate coordinate) {
+        VERSION_CACHE.invalidate(toVersionCacheKey(coordinate));
+    }
+
+    /**
+     * Drops all cached versions.
+     */
+    public static void invalidateVersions() {
+        VERSION_CACHE.invalidateAll();
     }
 
     public static boolean isRedhatVersion(String version) {
-        return REDHAT_VERSION_PATTERN.matcher(version).matches();
+        return MavenVersion.of(version).isRedhat();
     }
 
     public static Coordinate createCoordinate(String groupId, String artifactId, String version, String packaging) {
@@ -86,6 +104,11 @@ public class MavenUtils {
             .setPackaging(packaging);
     }
 
+    private static String toVersionCacheKey(Coordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getPackaging() + ":"
+            + coordinate.getClassifier() + ":" + coordinate.getVersion();
+    }
+
     private static List<Coordinate> resolveVersions(DependencyResolver resolver, Coordinate coordinate, Predicate... filters) {
         DependencyQueryBuilder query = DependencyQueryBuilder.create(coordinate).setFilter(new CompositeDependencyFilter(filters));
         return resolver.resolveVersions(query);
@@ -0,0 +1,278 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed Maven version, split into its leading numeric components and the qualifier that follows them,
+ * e.g. {@code 2.2.0.redhat-079} has the components {@code 2, 2, 0} and the qualifier {@code redhat-079}.
+ * <p>
+ * Versions are parsed once and shared through {@link #of(String)}, so repeated filtering of the same
+ * versions does not parse them again.
+ * <p>
+ * Versions are ordered like Maven orders them: numeric components first, missing components counting as 0,
+ * then the qualifier. Pre-release qualifiers such as {@code M1} or {@code RC2} come before the release, and other
+ * qualifiers, like Red Hat and Fuse builds, after it. Numbers in qualifiers are compared numerically, so
+ * {@code redhat-100} is newer than {@code redhat-079}. Note that the ordering is not consistent with equals,
+ * {@code 1.0} and {@code 1.0.0} are different versions that compare as equal.
+ */
+public final class MavenVersion implements Comparable<MavenVersion> {
+
+    private static final int MAX_CACHED_VERSIONS = 4096;
+    private static final Map<String, MavenVersion> VERSIONS = new ConcurrentHashMap<>();
+
+    private static final int[] NO_COMPONENTS = new int[0];
+    private static final String[] NO_TOKENS = new String[0];
+
+    // qualifier ranks, releases and unknown qualifiers sort after pre-releases
+    private static final int ALPHA = 1;
+    private static final int BETA = 2;
+    private static final int MILESTONE = 3;
+    private static final int RELEASE_CANDIDATE = 4;
+    private static final int SNAPSHOT = 5;
+    private static final int RELEASE = 6;
+    private static final int SERVICE_PACK = 7;
+    private static final int OTHER = 8;
+
+    private final String version;
+    private final int[] components;
+    private final String qualifier;
+    private final boolean redhat;
+    private final int qualifierRank;
+    private final String[] qualifierTokens;
+
+    private MavenVersion(String version) {
+        this.version = version;
+
+        int[] parsed = new int[4];
+        int count = 0;
+        int start = 0;
+        int length = version.length();
+        while (start < length) {
+            int end = start;
+            long value = 0;
+            while (end < length && Character.isDigit(version.charAt(end)) && value <= Integer.MAX_VALUE) {
+                value = value * 10 + (version.charAt(end) - '0');
+                end++;
+            }
+            // a component is all digits up to the next separator
+            if (end == start || value > Integer.MAX_VALUE || (end < length && version.charAt(end) != '.' && version.charAt(end) != '-')) {
+                break;
+            }
+            if (count == parsed.length) {
+                parsed = Arrays.copyOf(parsed, count * 2);
+            }
+            parsed[count++] = (int) value;
+            start = end + 1;
+        }
+
+        this.components = count == 0 ? NO_COMPONENTS : Arrays.copyOf(parsed, count);
+        this.qualifier = start < length ? version.substring(start) : "";
+        this.redhat = isRedhatQualified(version);
+        this.qualifierTokens = tokenize(qualifier);
+        this.qualifierRank = rank(qualifierTokens);
+    }
+
+    // splits a qualifier into runs of digits and runs of other characters, dropping separators
+    private static String[] tokenize(String qualifier) {
+        if (qualifier.isEmpty()) {
+            return NO_TOKENS;
+        }
+
+        List<String> tokens = new ArrayList<>(4);
+        int length = qualifier.length();
+        int i = 0;
+        while (i < length) {
+            char c = qualifier.charAt(i);
+            if (c == '.' || c == '-' || c == '_') {
+                i++;
+                continue;
+            }
+            boolean digits = Character.isDigit(c);
+            int start = i;
+            while (i < length && Character.isDigit(qualifier.charAt(i)) == digits
+                && qualifier.charAt(i) != '.' && qualifier.charAt(i) != '-' && qualifier.charAt(i) != '_') {
+                i++;
+            }
+            String token = qualifier.substring(start, i);
+            tokens.add(digits ? stripLeadingZeros(token) : token.toLowerCase(Locale.ENGLISH));
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    private static String stripLeadingZeros(String digits) {
+        int i = 0;
+        while (i < digits.length() - 1 && digits.charAt(i) == '0') {
+            i++;
+        }
+        return digits.substring(i);
+    }
+
+    private static int rank(String[] tokens) {
+        if (tokens.length == 0) {
+            return RELEASE;
+        }
+        switch (tokens[0]) {
+        case "alpha":
+        case "a":
+            return ALPHA;
+        case "beta":
+        case "b":
+            return BETA;
+        case "milestone":
+        case "m":
+            return MILESTONE;
+        case "rc":
+        case "cr":
+            return RELEASE_CANDIDATE;
+        case "snapshot":
+            return SNAPSHOT;
+        case "ga":
+        case "final":
+        case "release":
+            return RELEASE;
+        case "sp":
+            return SERVICE_PACK;
+        default:
+            return OTHER;
+        }
+    }
+
+    /**
+     * Returns the parsed form of the given version.
+     */
+    public static MavenVersion of(String version) {
+        MavenVersion parsed = VERSIONS.get(version);
+        if (parsed == null) {
+            if (VERSIONS.size() >= MAX_CACHED_VERSIONS) {
+                VERSIONS.clear();
+            }
+            parsed = new MavenVersion(version);
+            VERSIONS.put(version, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns whether the version has a {@code .redhat-} or {@code .fuse-} qualifier, using plain substring
+     * searches rather than a backtracking regex.
+     */
+    public static boolean isRedhatQualified(String version) {
+        return version.contains(".redhat-") || version.contains(".fuse-");
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getComponentCount() {
+        return components.length;
+    }
+
+    /**
+     * Returns the numeric component at the given index, or 0 if the version has fewer components.
+     */
+    public int getComponent(int index) {
+        return index < components.length ? components[index] : 0;
+    }
+
+    public String getQualifier() {
+        return qualifier;
+    }
+
+    public boolean isRedhat() {
+        return redhat;
+    }
+
+    public int getMajor() {
+        return getComponent(0);
+    }
+
+    @Override
+    public int compareTo(MavenVersion other) {
+        int count = Math.max(components.length, other.components.length);
+        for (int i = 0; i < count; i++) {
+            int result = Integer.compare(getComponent(i), other.getComponent(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        int result = Integer.compare(qualifierRank, other.qualifierRank);
+        if (result != 0) {
+            return result;
+        }
+
+        // the rank names the same kind of qualifier, compare what follows, e.g. the build of Final-redhat-1
+        int start = firstTokenAfterRank();
+        int otherStart = other.firstTokenAfterRank();
+        int tokens = Math.max(qualifierTokens.length - start, other.qualifierTokens.length - otherStart);
+        for (int i = 0; i < tokens; i++) {
+            result = compareTokens(token(start + i), other.token(otherStart + i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    // a release may have no qualifier at all, other unknown qualifiers have no rank token
+    private int firstTokenAfterRank() {
+        return qualifierRank == OTHER || qualifierTokens.length == 0 ? 0 : 1;
+    }
+
+    private String token(int index) {
+        return index < qualifierTokens.length ? qualifierTokens[index] : null;
+    }
+
+    // a missing token sorts first, numbers after words, numbers by value and words alphabetically
+    private static int compareTokens(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+
+        boolean aDigits = Character.isDigit(a.charAt(0));
+        boolean bDigits = Character.isDigit(b.charAt(0));
+        if (aDigits != bDigits) {
+            return aDigits ? 1 : -1;
+        }
+        if (aDigits && a.length() != b.length()) {
+            return Integer.compare(a.length(), b.length());
+        }
+        return a.compareTo(b);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof MavenVersion && version.equals(((MavenVersion) o).version));
+    }
+
+    @Override
+    public int hashCode() {
+        return version.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return version;
+    }
+}
@@ -0,0 +1,460 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Merges regular expressions that are alternated together, and spots expression shapes prone to catastrophic
+ * backtracking.
+ * <p>
+ * Merging splits the expressions into their top level alternatives, unwrapping alternatives that are a single
+ * group, and drops duplicates while keeping their order. Consecutive alternatives that are plain literals are
+ * factored into one expression by their common prefixes, e.g. {@code getPeople|getPerson|setPerson} becomes
+ * {@code getPe(?:ople|rson)|setPerson}. Expressions with inline flags, lookarounds and other special groups are
+ * only alternated as they are. The merged expression matches the same strings as the alternation of the inputs.
+ */
+public final class RegexOptimizer {
+
+    private static final String META_CHARS = "\\.[]{}()*+?^$|";
+    private static final String CLASS_META_CHARS = "\\]^-[";
+
+    private RegexOptimizer() {
+    }
+
+    /**
+     * Returns the alternation of the given expressions in merged form, compiling them first.
+     *
+     * @throws java.util.regex.PatternSyntaxException if either expression is invalid
+     */
+    public static String merge(String regex, String other) {
+        if (regex != null) {
+            Pattern.compile(regex);
+        }
+        if (other != null) {
+            Pattern.compile(other);
+        }
+        if (hasSpecialGroup(regex) || hasSpecialGroup(other)) {
+            // an inline flag applies up to the end of its group, across alternatives, so such inputs are kept whole
+            if (regex == null || other == null) {
+                return regex == null ? other : regex;
+            }
+            return "(?:" + regex + ")|(?:" + other + ")";
+        }
+
+        Set<String> alternatives = new LinkedHashSet<>();
+        if (regex != null) {
+            addAlternatives(regex, alternatives);
+        }
+        if (other != null) {
+            addAlternatives(other, alternatives);
+        }
+
+        StringBuilder merged = new StringBuilder();
+        Trie literals = new Trie();
+        for (String alternative : alternatives) {
+            String literal = toLiteral(alternative);
+            if (literal != null && !literal.isEmpty()) {
+                literals.add(literal);
+            } else {
+                appendLiterals(merged, literals);
+                literals = new Trie();
+                appendAlternative(merged, alternative);
+            }
+        }
+        appendLiterals(merged, literals);
+        return merged.toString();
+    }
+
+    private static void appendLiterals(StringBuilder merged, Trie literals) {
+        if (!literals.children.isEmpty()) {
+            // the top level needs no group, alternation binds weakest
+            appendAlternative(merged, String.join("|", literals.emitChildren()));
+        }
+    }
+
+    private static void appendAlternative(StringBuilder merged, String alternative) {
+        if (merged.length() > 0) {
+            merged.append('|');
+        }
+        merged.append(alternative);
+    }
+
+    /**
+     * Returns descriptions of the backtracking prone shapes in the expression: a group repeated without bound that
+     * itself contains an unbounded repetition, such as {@code (a+)+}, or alternatives that can match the same input,
+     * such as {@code (a|ab)*}. A repetition followed by a required literal it cannot match, such as the
+     * {@code [a-z]+} in {@code ([a-z]+\\.)*}, is not a risk since each repeat of the group must end at that literal.
+     */
+    public static List<String> findBacktrackingRisks(String regex) {
+        List<String> risks = new ArrayList<>();
+        Deque<Group> groups = new ArrayDeque<>();
+        Group top = new Group(0);
+        // the last single character atom, which a quantifier applies to
+        String atom = null;
+        int length = regex.length();
+        for (int i = 0; i < length; i++) {
+            char c = regex.charAt(i);
+            int atomEnd;
+            if (c == '\\') {
+                atomEnd = Math.min(i + 2, length);
+            } else if (c == '[') {
+                atomEnd = Math.min(skipClass(regex, i) + 1, length);
+            } else if (c == '(') {
+                top.follow(null);
+                groups.push(top);
+                top = new Group(i);
+                atom = null;
+                continue;
+            } else if (c == ')' && !groups.isEmpty()) {
+                top.follow(null);
+                Group closed = top;
+                top = groups.pop();
+                int quantifierEnd = unboundedQuantifierEnd(regex, i + 1);
+                if (quantifierEnd > 0) {
+                    String group = regex.substring(closed.start, i + 1);
+                    if (closed.unbounded) {
+                        risks.add("nested repetition " + group + regex.substring(i + 1, quantifierEnd));
+                    } else if (hasOverlappingAlternatives(regex.substring(closed.start + 1, i))) {
+                        risks.add("repeated overlapping alternatives " + group + regex.substring(i + 1, quantifierEnd));
+                    }
+                    top.unbounded = true;
+                    i = quantifierEnd - 1;
+                } else {
+                    top.unbounded |= closed.unbounded;
+                }
+                atom = null;
+                continue;
+            } else if (unboundedQuantifierEnd(regex, i) > 0) {
+                top.repeat(atom);
+                i = unboundedQuantifierEnd(regex, i) - 1;
+                atom = null;
+                continue;
+            } else if (c == '.' || META_CHARS.indexOf(c) < 0) {
+                atomEnd = i + 1;
+            } else {
+                top.follow(null);
+                atom = null;
+                continue;
+            }
+
+            atom = regex.substring(i, atomEnd);
+            top.follow(toRequiredLiteral(regex, i, atomEnd));
+            i = atomEnd - 1;
+        }
+        return risks;
+    }
+
+    /**
+     * Returns the character of the literal atom between the indexes if it is not optional, or null.
+     */
+    private static Character toRequiredLiteral(String regex, int start, int end) {
+        if (end < regex.length() && "?*{".indexOf(regex.charAt(end)) >= 0) {
+            return null;
+        }
+        String literal = toLiteral(regex.substring(start, end));
+        return literal != null && literal.length() == 1 ? literal.charAt(0) : null;
+    }
+
+    private static void addAlternatives(String regex, Set<String> alternatives) {
+        for (String alternative : splitAlternatives(regex)) {
+            String unwrapped = alternative;
+            while (isSingleGroup(unwrapped)) {
+                unwrapped = unwrapped.startsWith("(?:") ? unwrapped.substring(3, unwrapped.length() - 1)
+                    : unwrapped.substring(1, unwrapped.length() - 1);
+                if (splitAlternatives(unwrapped).size() > 1) {
+                    addAlternatives(unwrapped, alternatives);
+                    unwrapped = null;
+                    break;
+                }
+            }
+            if (unwrapped != null) {
+                alternatives.add(unwrapped);
+            }
+        }
+    }
+
+    static List<String> splitAlternatives(String regex) {
+        List<String> alternatives = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                alternatives.add(regex.substring(start, i));
+                start = i + 1;
+            }
+        }
+        alternatives.add(regex.substring(start));
+        return alternatives;
+    }
+
+    /**
+     * Returns whether the expression has a group other than a plain capturing or non capturing one, such as an
+     * inline flag {@code (?i)}, a lookaround or a named group.
+     */
+    private static boolean hasSpecialGroup(String regex) {
+        if (regex == null) {
+            return false;
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i);
+            } else if (c == '(' && regex.startsWith("?", i + 1) && !regex.startsWith("?:", i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the expression is one capturing or non capturing group, e.g. {@code (a|b)} but not {@code (a)|(b)}.
+     */
+    private static boolean isSingleGroup(String regex) {
+        if (regex.length() < 2 || regex.charAt(0) != '(' || regex.charAt(regex.length() - 1) != ')'
+            || (regex.startsWith("(?") && !regex.startsWith("(?:"))) {
+            return false;
+        }
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i == regex.length() - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the literal text the expression matches, or null if it is not a plain literal.
+     */
+    static String toLiteral(String regex) {
+        StringBuilder literal = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    // character classes, back references and the like
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if (META_CHARS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    private static int skipClass(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        // a leading ] is part of the class
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        for (; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i);
+            } else if (c == ']') {
+                return i;
+            }
+        }
+        return regex.length();
+    }
+
+    /**
+     * Returns the end of an unbounded quantifier ({@code *}, {@code +} or {@code {n,}}) at the index, or 0 if there is none.
+     */
+    private static int unboundedQuantifierEnd(String regex, int index) {
+        if (index >= regex.length()) {
+            return 0;
+        }
+        int end;
+        char c = regex.charAt(index);
+        if (c == '*' || c == '+') {
+            end = index + 1;
+        } else if (c == '{') {
+            int close = regex.indexOf('}', index);
+            if (close < 0 || !regex.substring(index + 1, close).matches("\\d+,")) {
+                return 0;
+            }
+            end = close + 1;
+        } else {
+            return 0;
+        }
+        // lazy and possessive modifiers
+        if (end < regex.length() && (regex.charAt(end) == '?' || regex.charAt(end) == '+')) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean hasOverlappingAlternatives(String groupContent) {
+        String content = groupContent.startsWith("?:") ? groupContent.substring(2) : groupContent;
+        List<String> alternatives = splitAlternatives(content);
+        for (int i = 0; i < alternatives.size(); i++) {
+            String a = toLiteral(alternatives.get(i));
+            for (int j = i + 1; a != null && j < alternatives.size(); j++) {
+                String b = toLiteral(alternatives.get(j));
+                if (b != null && (a.startsWith(b) || b.startsWith(a))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String escape(char c, String metaChars) {
+        return metaChars.indexOf(c) >= 0 ? "\\" + c : String.valueOf(c);
+    }
+
+    private static final class Group {
+        private final int start;
+        private boolean unbounded;
+        // the atom of the last unbounded repetition, until what follows it is known
+        private String repeated;
+
+        private Group(int start) {
+            this.start = start;
+        }
+
+        private void repeat(String atom) {
+            follow(null);
+            if (atom == null) {
+                unbounded = true;
+            } else {
+                repeated = atom;
+            }
+        }
+
+        /**
+         * Settles the last repetition with the literal following it, or null if anything else follows.
+         */
+        private void follow(Character literal) {
+            if (repeated != null && (literal == null || canMatch(repeated, literal))) {
+                unbounded = true;
+            }
+            repeated = null;
+        }
+
+        private static boolean canMatch(String atom, char c) {
+            try {
+                return Pattern.compile(atom).matcher(String.valueOf(c)).matches();
+            } catch (PatternSyntaxException e) {
+                return true;
+            }
+        }
+    }
+
+    private static final class Trie {
+        private final Map<Character, Trie> children = new TreeMap<>();
+        private boolean terminal;
+
+        private void add(String literal) {
+            Trie node = this;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.children.computeIfAbsent(literal.charAt(i), c -> new Trie());
+            }
+            node.terminal = true;
+        }
+
+        private boolean isLeaf() {
+            return children.isEmpty();
+        }
+
+        private List<String> emitChildren() {
+            List<String> parts = new ArrayList<>(children.size());
+            for (Map.Entry<Character, Trie> child : children.entrySet()) {
+                parts.add(escape(child.getKey(), META_CHARS) + child.getValue().emit());
+            }
+            return parts;
+        }
+
+        private String emit() {
+            if (isLeaf()) {
+                return "";
+            }
+
+            String body;
+            boolean single;
+            if (children.size() > 1 && allLeafChildren()) {
+                // single characters, as a character class
+                StringBuilder characterClass = new StringBuilder("[");
+                for (Character c : children.keySet()) {
+                    characterClass.append(escape(c, CLASS_META_CHARS));
+                }
+                body = characterClass.append(']').toString();
+                single = true;
+            } else {
+                List<String> parts = emitChildren();
+                if (parts.size() == 1) {
+                    body = parts.get(0);
+                    single = body.length() == 1 || (body.length() == 2 && body.charAt(0) == '\\');
+                } else {
+                    body = "(?:" + String.join("|", parts) + ")";
+                    single = true;
+                }
+            }
+
+            if (!terminal) {
+                return body;
+            }
+            return single ? body + "?" : "(?:" + body + ")?";
+        }
+
+        private boolean allLeafChildren() {
+            for (Trie child : children.values()) {
+                if (!child.isLeaf()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
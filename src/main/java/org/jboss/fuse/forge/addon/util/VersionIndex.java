@@ -0,0 +1,103 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Versions of an artifact sorted by {@link MavenVersion} ordering, whatever order they were resolved in.
+ * The latest version and the latest Red Hat version are found once when the index is built, and the latest
+ * version within a major line is a binary search.
+ */
+public final class VersionIndex {
+
+    private final MavenVersion[] versions;
+    private final MavenVersion latestRedhat;
+
+    public VersionIndex(Collection<String> versions) {
+        MavenVersion[] sorted = new MavenVersion[versions.size()];
+        int i = 0;
+        for (String version : versions) {
+            sorted[i++] = MavenVersion.of(version);
+        }
+        Arrays.sort(sorted);
+        this.versions = sorted;
+
+        MavenVersion redhat = null;
+        for (int j = sorted.length - 1; j >= 0 && redhat == null; j--) {
+            if (sorted[j].isRedhat()) {
+                redhat = sorted[j];
+            }
+        }
+        this.latestRedhat = redhat;
+    }
+
+    public boolean isEmpty() {
+        return versions.length == 0;
+    }
+
+    /**
+     * Returns the versions from oldest to latest.
+     */
+    public List<String> getVersions() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return versions[index].getVersion();
+            }
+
+            @Override
+            public int size() {
+                return versions.length;
+            }
+        };
+    }
+
+    /**
+     * Returns the latest version, or null if there are none.
+     */
+    public String getLatest() {
+        return versions.length > 0 ? versions[versions.length - 1].getVersion() : null;
+    }
+
+    /**
+     * Returns the latest Red Hat or Fuse version, or null if there are none.
+     */
+    public String getLatestRedhat() {
+        return latestRedhat != null ? latestRedhat.getVersion() : null;
+    }
+
+    /**
+     * Returns the latest version with the given major version, or null if there are none.
+     */
+    public String getLatest(int major) {
+        // first version of the next major line, the one before it is the latest of this line
+        int low = 0;
+        int high = versions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (versions[mid].getMajor() <= major) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low > 0 && versions[low - 1].getMajor() == major ? versions[low - 1].getVersion() : null;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ApiConfigurationTest {
+
+    private final ApiPluginFixture fixture = new ApiPluginFixture()
+        .addApi("first", "org.example.First")
+        .addApi("second", "org.example.Second");
+
+    @Test
+    public void testApisAreIndexedByName() {
+        ApiConfiguration apiConfiguration = fixture.newApiConfiguration();
+        Assert.assertEquals(Arrays.asList("first", "second"), new ArrayList<>(apiConfiguration.getApiNames()));
+        Assert.assertTrue(apiConfiguration.hasApi("second"));
+        Assert.assertEquals("org.example.Second",
+            apiConfiguration.getApi("second").getChildByName("proxyClass").getText());
+        Assert.assertNull(apiConfiguration.getApi("third"));
+    }
+
+    @Test
+    public void testAddApi() {
+        ApiConfiguration apiConfiguration = fixture.newApiConfiguration();
+        Assert.assertNotNull(apiConfiguration.addApi("third", "org.example.Third"));
+        Assert.assertNull(apiConfiguration.addApi("first", "org.example.Other"));
+
+        ApiConfiguration reread = fixture.newApiConfiguration();
+        Assert.assertEquals(Arrays.asList("first", "second", "third"), new ArrayList<>(reread.getApiNames()));
+    }
+
+    @Test
+    public void testRemoveApi() {
+        ApiConfiguration apiConfiguration = fixture.newApiConfiguration();
+        Assert.assertTrue(apiConfiguration.removeApi("first"));
+        Assert.assertFalse(apiConfiguration.removeApi("first"));
+        Assert.assertFalse(apiConfiguration.hasApi("first"));
+
+        Assert.assertEquals(Arrays.asList("second"),
+            new ArrayList<>(fixture.newApiConfiguration().getApiNames()));
+    }
+
+    @Test
+    public void testProxyClasses() {
+        ApiConfiguration apiConfiguration = fixture.newApiConfiguration();
+        Assert.assertTrue(apiConfiguration.hasProxyClass("org.example.First"));
+        Assert.assertFalse(apiConfiguration.hasProxyClass("org.example.Third"));
+
+        apiConfiguration.addApi("third", "org.example.Third");
+        apiConfiguration.addApi("also-first", "org.example.First");
+        apiConfiguration.removeApi("first");
+        Assert.assertTrue(apiConfiguration.hasProxyClass("org.example.Third"));
+        Assert.assertTrue(apiConfiguration.hasProxyClass("org.example.First"));
+
+        apiConfiguration.removeApi("also-first");
+        Assert.assertFalse(apiConfiguration.hasProxyClass("org.example.First"));
+    }
+
+    @Test
+    public void testApiElement() {
+        ApiConfiguration apiConfiguration = fixture.newApiConfiguration();
+        apiConfiguration.getApiElement("second", "aliases").addChild("alias").setText("get.*=list");
+        Assert.assertNull(apiConfiguration.getApiElement("third", "aliases"));
+
+        ConfigurationElementBuilder aliases = fixture.newApiConfiguration().getApiElement("second", "aliases");
+        Assert.assertEquals("get.*=list", aliases.getChildByName("alias").getText());
+    }
+
+
+    @Test
+    public void testDuplicateApiNames() {
+        ApiConfiguration apiConfiguration = new ApiPluginFixture()
+            .addApi("people", "org.example.People")
+            .addApi("people", "org.example.PeopleV2")
+            .newApiConfiguration();
+        Assert.assertEquals(Arrays.asList("people"), new ArrayList<>(apiConfiguration.getApiNames()));
+
+        // elements are edited on the last API of a name, lookups and removals take the first
+        apiConfiguration.getApiElement("people", "aliases");
+        Assert.assertEquals("org.example.People", apiConfiguration.getApi("people").getChildByName("proxyClass").getText());
+        Assert.assertFalse(apiConfiguration.getApi("people").hasChildByName("aliases"));
+
+        Assert.assertTrue(apiConfiguration.removeApi("people"));
+        Assert.assertEquals("org.example.PeopleV2", apiConfiguration.getApi("people").getChildByName("proxyClass").getText());
+        Assert.assertTrue(apiConfiguration.getApi("people").hasChildByName("aliases"));
+        Assert.assertTrue(apiConfiguration.removeApi("people"));
+        Assert.assertFalse(apiConfiguration.hasApi("people"));
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
+import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
+import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
+import org.jboss.forge.addon.maven.plugins.ExecutionBuilder;
+import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
+
+/**
+ * An Api Component plugin with a 'generate' execution whose configuration holds the added APIs.
+ */
+final class ApiPluginFixture {
+
+    private final MavenPluginBuilder plugin;
+    private final ConfigurationBuilder configuration;
+    private final ConfigurationElementBuilder apis;
+
+    ApiPluginFixture() {
+        plugin = MavenPluginBuilder.create()
+            .setCoordinate(CoordinateBuilder.create("org.apache.camel:camel-api-component-maven-plugin:2.18.1"));
+        configuration = ConfigurationBuilder.create(plugin);
+        apis = configuration.createConfigurationElement("apis");
+        plugin.addExecution(ExecutionBuilder.create().setId("generate").addGoal("fromApis").setConfig(configuration));
+    }
+
+    ApiPluginFixture addApi(String name, String proxyClass) {
+        ConfigurationElementBuilder api = apis.createConfigurationElement("api");
+        api.createConfigurationElement("apiName").setText(name);
+        api.createConfigurationElement("proxyClass").setText(proxyClass);
+        return this;
+    }
+
+    MavenPluginBuilder getPlugin() {
+        return plugin;
+    }
+
+    ConfigurationBuilder getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Returns a new index of the plugin configuration, as the commands read it.
+     */
+    ApiConfiguration newApiConfiguration() {
+        return new ApiConfiguration(plugin, configuration);
+    }
+}
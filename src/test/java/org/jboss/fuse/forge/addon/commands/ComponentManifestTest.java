@@ -0,0 +1,75 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComponentManifestTest {
+
+    @Test
+    public void testComponentsAreRead() throws Exception {
+        List<ComponentSpec> specs = read("# vendor components\n"
+            + "LinkedIn linkedin org.apache.camel.component.linkedin\n"
+            + "\n"
+            + "  Box   box   org.apache.camel.component.box   components/box  \n");
+
+        Assert.assertEquals(2, specs.size());
+        ComponentSpec linkedIn = specs.get(0);
+        Assert.assertEquals("LinkedIn", linkedIn.getName());
+        Assert.assertEquals("linkedin", linkedIn.getScheme());
+        Assert.assertEquals("org.apache.camel.component.linkedin", linkedIn.getPackageName());
+        Assert.assertEquals("camel-linkedin", linkedIn.getDirectory());
+        Assert.assertEquals("components/box", specs.get(1).getDirectory());
+        Assert.assertEquals("Box", specs.get(1).getTemplateParams().get("name"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingPackage() throws Exception {
+        read("LinkedIn linkedin\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateScheme() throws Exception {
+        read("LinkedIn linkedin org.example.a\nLinked linkedin org.example.b dir\n");
+    }
+
+    @Test
+    public void testDirectoryOutsideProject() throws Exception {
+        assertInvalid("Box box org.example.box ../box\n");
+        assertInvalid("Box box org.example.box components/../../box\n");
+        assertInvalid("Box box org.example.box /tmp/box\n");
+        assertInvalid("Box box org.example.box \\\\server\\box\n");
+        Assert.assertEquals("components/..box", read("Box box org.example.box components/..box\n").get(0).getDirectory());
+    }
+
+    private static void assertInvalid(String manifest) throws Exception {
+        try {
+            read(manifest);
+            Assert.fail("Expected '" + manifest.trim() + "' to be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Line 1: directory"));
+        }
+    }
+
+    private static List<ComponentSpec> read(String manifest) throws Exception {
+        return ComponentManifest.read(new BufferedReader(new StringReader(manifest)));
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComponentTemplatesTest {
+
+    @Test
+    public void testJavaFile() {
+        File sourceDir = new File("src/main/java");
+        Assert.assertEquals(new File(sourceDir, "org/example/foo/internal/FooConstants.java".replace('/', File.separatorChar)),
+            ComponentTemplates.javaFile(sourceDir, "org.example.foo.internal", "FooConstants"));
+        Assert.assertEquals(new File(sourceDir, "Foo.java"), ComponentTemplates.javaFile(sourceDir, null, "Foo"));
+        Assert.assertEquals(new File(sourceDir, "Foo.java"), ComponentTemplates.javaFile(sourceDir, "", "Foo"));
+    }
+}
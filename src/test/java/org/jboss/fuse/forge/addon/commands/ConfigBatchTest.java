@@ -0,0 +1,128 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigBatchTest {
+
+    private final ApiPluginFixture fixture = new ApiPluginFixture().addApi("people", "org.example.People");
+
+    @Test
+    public void testOperationsAreApplied() throws Exception {
+        ConfigBatch batch = read("# people api\n"
+            + "alias,people,get(.+),$1\n"
+            + "nullableOption,people,fields\n"
+            + "excludeConfigNames,,\"^(a|b){1,3}$\"\n"
+            + "excludeConfigNames,,secret\n"
+            + "excludeJavadocClasses,people,Internal.*\n"
+            + "substitution,people,^.+$,id,,personId\n");
+        Assert.assertEquals(6, batch.size());
+
+        ApiConfiguration apiConfiguration = fixture.newApiConfiguration();
+        batch.applyTo(apiConfiguration);
+
+        ConfigurationElement api = apiConfiguration.getApi("people");
+        ConfigurationElement alias = api.getChildByName("aliases").getChildByName("alias");
+        Assert.assertEquals("get(.+)", alias.getChildByName("methodPattern").getText());
+        Assert.assertEquals("$1", alias.getChildByName("methodAlias").getText());
+        Assert.assertEquals("fields", api.getChildByName("nullableOptions").getChildByName("nullableOption").getText());
+        Assert.assertEquals("Internal.*", api.getChildByName("fromJavadoc").getChildByName("excludeClasses").getText());
+        ConfigurationElement substitution = api.getChildByName("substitutions").getChildByName("substitution");
+        Assert.assertFalse(substitution.hasChildByName("argType"));
+        Assert.assertEquals("personId", substitution.getChildByName("replacement").getText());
+
+        Assert.assertEquals("^(a|b){1,3}$|secret", fixture.getConfiguration().getConfigurationElement("excludeConfigNames").getText());
+    }
+
+    @Test
+    public void testQuotedFields() {
+        Assert.assertEquals(Arrays.asList("alias", "", "a,b", "say \"hi\""),
+            ConfigBatch.split("alias,,\"a,b\",\"say \"\"hi\"\"\"", 1));
+    }
+
+    @Test
+    public void testFieldsAreTrimmed() {
+        Assert.assertEquals(Arrays.asList("alias", "people", "get(.+)", " kept "),
+            ConfigBatch.split(" alias , people,\tget(.+) ,\" kept \" ", 1));
+        Assert.assertEquals(Arrays.asList("nullableOption", "", ""), ConfigBatch.split("nullableOption,  , ", 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOperation() throws Exception {
+        read("rename,people,foo\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRegex() throws Exception {
+        read("excludeConfigNames,,(unclosed\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongArgumentCount() throws Exception {
+        read("alias,people,get(.+)\n");
+    }
+
+    @Test
+    public void testNullableOptionsAreAdded() throws Exception {
+        ApiConfiguration apiConfiguration = fixture.newApiConfiguration();
+        read("nullableOption,people,fields\nnullableOption,people,sort\n").applyTo(apiConfiguration);
+
+        ConfigurationElement nullableOptions = apiConfiguration.getApi("people").getChildByName("nullableOptions");
+        Assert.assertEquals(2, nullableOptions.getChildren().size());
+        Assert.assertEquals("sort", ((ConfigurationElement) nullableOptions.getChildren().get(1)).getText());
+    }
+
+    @Test
+    public void testBooleanArguments() throws Exception {
+        Assert.assertEquals(3, read("includeJavadocStaticMethods,people,TRUE\n"
+            + "substitution,people,^.+$,id,,personId,false\n"
+            + "substitution,people,^.+$,id,,personId,\n").size());
+        assertInvalid("includeJavadocStaticMethods,people,ture\n", "Line 1: operation 'includeJavadocStaticMethods' expects true or false but has 'ture'");
+        assertInvalid("includeJavadocStaticMethods,people,\n", "Line 1: operation 'includeJavadocStaticMethods' expects true or false but has ''");
+        assertInvalid("# substitutions\nsubstitution,people,^.+$,id,,personId,yes\n", "Line 2: operation 'substitution' expects true or false but has 'yes'");
+    }
+
+    @Test
+    public void testMissingApi() throws Exception {
+        ConfigBatch batch = read("nullableOption,people,fields\nnullableOption,places,fields\n");
+        try {
+            batch.applyTo(fixture.newApiConfiguration());
+            Assert.fail("Expected a missing API");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Line 2: missing API name places", e.getMessage());
+        }
+    }
+
+    private static void assertInvalid(String operations, String message) throws Exception {
+        try {
+            read(operations);
+            Assert.fail("Expected invalid operations " + operations);
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(message, e.getMessage());
+        }
+    }
+
+    private static ConfigBatch read(String operations) throws Exception {
+        return ConfigBatch.read(new BufferedReader(new StringReader(operations)));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.jboss.forge.addon.dependencies.builder.DependencyBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class DependencyBatchTest {
+
+    @Test
+    public void testDependenciesAreAdded() {
+        Model model = new Model();
+        new DependencyBatch()
+            .add(DependencyBuilder.create("org.apache.camel:camel-core:2.18.1"))
+            .add(DependencyBuilder.create("org.apache.camel:camel-test:2.18.1:test"))
+            .applyTo(model);
+
+        Assert.assertEquals(2, model.getDependencies().size());
+        Dependency core = model.getDependencies().get(0);
+        Assert.assertEquals("camel-core", core.getArtifactId());
+        Assert.assertEquals("2.18.1", core.getVersion());
+        Assert.assertNull(core.getScope());
+        Assert.assertEquals("test", model.getDependencies().get(1).getScope());
+    }
+
+    @Test
+    public void testDeclaredDependenciesAreKept() {
+        Model model = new Model();
+        Dependency declared = new Dependency();
+        declared.setGroupId("org.apache.camel");
+        declared.setArtifactId("camel-core");
+        declared.setVersion("2.17.0");
+        model.addDependency(declared);
+
+        new DependencyBatch()
+            .add(DependencyBuilder.create("org.apache.camel:camel-core:2.18.1"))
+            .add(DependencyBuilder.create("org.apache.camel:camel-core:2.18.1"))
+            .applyTo(model);
+
+        Assert.assertEquals(1, model.getDependencies().size());
+        Assert.assertEquals("2.17.0", model.getDependencies().get(0).getVersion());
+    }
+
+    @Test
+    public void testManagedDependenciesHaveNoVersion() {
+        Model model = new Model();
+        Dependency managed = new Dependency();
+        managed.setGroupId("log4j");
+        managed.setArtifactId("log4j");
+        managed.setVersion("1.2.17");
+        model.setDependencyManagement(new DependencyManagement());
+        model.getDependencyManagement().addDependency(managed);
+
+        new DependencyBatch().add(DependencyBuilder.create("log4j:log4j:1.2.16:test")).applyTo(model);
+
+        Assert.assertEquals(1, model.getDependencies().size());
+        Assert.assertNull(model.getDependencies().get(0).getVersion());
+        Assert.assertEquals("test", model.getDependencies().get(0).getScope());
+    }
+
+    @Test
+    public void testInheritedManagedDependenciesHaveNoVersion() {
+        Model model = new Model();
+        Dependency inherited = new Dependency();
+        inherited.setGroupId("log4j");
+        inherited.setArtifactId("log4j");
+        inherited.setVersion("1.2.17");
+
+        new DependencyBatch()
+            .add(DependencyBuilder.create("log4j:log4j:1.2.16:test"))
+            .add(DependencyBuilder.create("org.apache.camel:camel-core:2.18.1"))
+            .applyTo(model, Collections.singletonList(inherited));
+
+        Assert.assertNull(model.getDependencies().get(0).getVersion());
+        Assert.assertEquals("2.18.1", model.getDependencies().get(1).getVersion());
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ImportApisCommandTest {
+
+    @Test
+    public void testApiNames() {
+        Assert.assertEquals("people", ImportApisCommand.toApiName("com.example.PeopleService"));
+        Assert.assertEquals("userGroup", ImportApisCommand.toApiName("com.example.UserGroupApi"));
+        Assert.assertEquals("companies", ImportApisCommand.toApiName("Companies"));
+        // a suffix alone is kept
+        Assert.assertEquals("service", ImportApisCommand.toApiName("com.example.Service"));
+    }
+
+    @Test
+    public void testPackageFilter() {
+        Assert.assertEquals(Arrays.asList("com.example.api.People", "com.example.api.v2.Groups"),
+            ImportApisCommand.filterPackage(Arrays.asList("com.example.api.People", "com.example.api.v2.Groups",
+                "com.example.apis.Other", "com.example.Root"), "com.example.api"));
+        Assert.assertEquals(Collections.emptyList(),
+            ImportApisCommand.filterPackage(Collections.singletonList("com.example.Root"), "org"));
+    }
+
+    @Test
+    public void testAddApis() {
+        ApiConfiguration configuration = new ApiPluginFixture()
+            .addApi("people", "com.example.PeopleService")
+            .addApi("groups", "com.example.Other")
+            .addApi("groupsApi", "com.example.Another")
+            .newApiConfiguration();
+
+        ImportApisCommand.ImportedApis imported = ImportApisCommand.addApis(configuration, Arrays.asList(
+            "com.example.PeopleService", "com.example.OrderService", "com.example.v2.OrderService", "com.example.GroupsApi"));
+
+        // already a proxy class, then added, added by its full name, and skipped since both names are taken
+        Assert.assertEquals(Arrays.asList("order", "orderService"), imported.added);
+        Assert.assertEquals(Collections.singletonList("com.example.GroupsApi"), imported.skipped);
+        Assert.assertTrue(configuration.hasProxyClass("com.example.v2.OrderService"));
+    }
+}
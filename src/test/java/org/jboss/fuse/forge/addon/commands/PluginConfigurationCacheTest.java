@@ -0,0 +1,90 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.forge.addon.maven.plugins.ExecutionBuilder;
+import org.jboss.forge.addon.maven.plugins.MavenPlugin;
+import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginConfigurationCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final PluginConfigurationCache cache = new PluginConfigurationCache();
+    private final AtomicInteger loads = new AtomicInteger();
+    private File pom;
+
+    @Before
+    public void setUp() throws Exception {
+        pom = temporaryFolder.newFile("pom.xml");
+        Files.write(pom.toPath(), "<project/>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testPluginIsLoadedOnce() {
+        MavenPlugin first = cache.get(pom, this::load);
+        MavenPlugin second = cache.get(pom, this::load);
+
+        Assert.assertEquals(1, loads.get());
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("generate", second.listExecutions().get(0).getId());
+        Assert.assertTrue(second.listExecutions().get(0).getConfig().hasConfigurationElement("apis"));
+    }
+
+    @Test
+    public void testChangedPomIsReloaded() throws Exception {
+        cache.get(pom, this::load);
+        Files.write(pom.toPath(), "<project></project>".getBytes(StandardCharsets.UTF_8));
+        cache.get(pom, this::load);
+
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidatedPluginIsReloaded() {
+        cache.get(pom, this::load);
+        cache.invalidate(pom);
+        cache.get(pom, this::load);
+
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testCopiesAreIndependent() {
+        MavenPluginBuilder edited = MavenPluginBuilder.create(cache.get(pom, this::load));
+        edited.addExecution(ExecutionBuilder.create().setId("other").addGoal("fromApis"));
+
+        Assert.assertEquals(1, cache.get(pom, this::load).listExecutions().size());
+        Assert.assertEquals(1, loads.get());
+    }
+
+    private MavenPlugin load() {
+        loads.incrementAndGet();
+        return new ApiPluginFixture().getPlugin();
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.commands;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
+import org.jboss.forge.addon.dependencies.builder.DependencyBuilder;
+import org.jboss.forge.addon.maven.plugins.ExecutionBuilder;
+import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PomEditSessionTest {
+
+    private final Model model = new Model();
+    private final List<Model> written = new ArrayList<>();
+
+    @Test
+    public void testChangesAreWrittenOnceOnCommit() {
+        PomEditSession session = new PomEditSession(model, written::add);
+        session.getModel().addProperty("schemeName", "test");
+        session.addDependencies(new DependencyBatch().add(DependencyBuilder.create("org.apache.camel:camel-core:2.18.1")));
+        session.addPlugin(plugin("org.codehaus.mojo:build-helper-maven-plugin:1.10", "add-generated-sources"));
+        Assert.assertTrue(written.isEmpty());
+        Assert.assertTrue(model.getProperties().isEmpty());
+
+        session.commit();
+        Assert.assertEquals(1, written.size());
+        Model result = written.get(0);
+        Assert.assertEquals("test", result.getProperties().getProperty("schemeName"));
+        Assert.assertEquals(1, result.getDependencies().size());
+        Assert.assertEquals(1, result.getBuild().getPlugins().size());
+    }
+
+    @Test
+    public void testRollbackWritesNothing() {
+        PomEditSession session = new PomEditSession(model, written::add);
+        session.getModel().setPackaging("bundle");
+        session.rollback();
+
+        Assert.assertTrue(written.isEmpty());
+        Assert.assertEquals("jar", model.getPackaging());
+        try {
+            session.commit();
+            Assert.fail("Closed session should not commit");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPluginsAreMerged() {
+        PomEditSession session = new PomEditSession(model, written::add);
+        session.addPlugin(plugin("org.codehaus.mojo:build-helper-maven-plugin:1.10", "add-generated-sources"));
+        session.addPlugin(plugin("org.codehaus.mojo:build-helper-maven-plugin:1.10", "add-generated-test-sources"));
+        session.addPlugin(plugin("org.codehaus.mojo:build-helper-maven-plugin:1.10", "add-generated-sources"));
+
+        Assert.assertEquals(1, session.getModel().getBuild().getPlugins().size());
+        Assert.assertEquals(2, session.getModel().getBuild().getPlugins().get(0).getExecutions().size());
+    }
+
+    @Test
+    public void testManagedPlugin() {
+        PomEditSession session = new PomEditSession(model, written::add);
+        Assert.assertNull(session.getManagedPlugin("org.apache.camel", "camel-api-component-maven-plugin"));
+
+        session.addManagedPlugin(plugin("org.apache.camel:camel-api-component-maven-plugin:2.18.1", "generate"));
+        Plugin managed = session.getManagedPlugin("org.apache.camel", "camel-api-component-maven-plugin");
+        Assert.assertEquals("2.18.1", managed.getVersion());
+        Assert.assertTrue(session.getModel().getBuild().getPlugins().isEmpty());
+    }
+
+    @Test
+    public void testEffectiveManagedDependenciesAreLookedUpOnce() {
+        Dependency inherited = new Dependency();
+        inherited.setGroupId("org.apache.camel");
+        inherited.setArtifactId("camel-core");
+        inherited.setVersion("2.18.1");
+        AtomicInteger lookups = new AtomicInteger();
+
+        PomEditSession session = new PomEditSession(model, written::add, () -> {
+            lookups.incrementAndGet();
+            return Collections.singletonList(inherited);
+        });
+        session.addDependencies(new DependencyBatch().add(DependencyBuilder.create("org.apache.camel:camel-core:2.18.1")));
+        session.addDependencies(new DependencyBatch().add(DependencyBuilder.create("org.slf4j:slf4j-api:1.7.22")));
+
+        Assert.assertEquals(1, lookups.get());
+        Assert.assertNull(session.getModel().getDependencies().get(0).getVersion());
+        Assert.assertEquals("1.7.22", session.getModel().getDependencies().get(1).getVersion());
+    }
+
+    private static MavenPluginBuilder plugin(String coordinate, String executionId) {
+        return MavenPluginBuilder.create()
+            .setCoordinate(CoordinateBuilder.create(coordinate))
+            .addExecution(ExecutionBuilder.create().setId(executionId).addGoal("add-source"));
+    }
+}
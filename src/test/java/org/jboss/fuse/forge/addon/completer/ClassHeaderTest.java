@@ -0,0 +1,127 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.completer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.concurrent.ScheduledFuture;
+
+public class ClassHeaderTest {
+
+    @Test
+    public void testPublicInterface() throws Exception {
+        int flags = read(Runnable.class);
+        Assert.assertEquals(ClassHeader.PUBLIC | ClassHeader.INTERFACE | ClassHeader.ABSTRACT | ClassHeader.PUBLIC_METHODS, flags);
+        Assert.assertTrue(ClassHeader.isProxyCandidate(flags));
+        Assert.assertTrue(ClassHeader.isServiceInterface(flags));
+    }
+
+    @Test
+    public void testPublicAbstractClass() throws Exception {
+        int flags = read(AbstractList.class);
+        Assert.assertEquals(ClassHeader.PUBLIC | ClassHeader.ABSTRACT | ClassHeader.PUBLIC_METHODS, flags);
+        Assert.assertTrue(ClassHeader.isProxyCandidate(flags));
+        Assert.assertFalse(ClassHeader.isServiceInterface(flags));
+    }
+
+    @Test
+    public void testInterfaceWithoutMethods() throws Exception {
+        int flags = read(Serializable.class);
+        Assert.assertTrue(ClassHeader.isPublicType(flags));
+        Assert.assertFalse(ClassHeader.isProxyCandidate(flags));
+        Assert.assertFalse(ClassHeader.isServiceInterface(flags));
+    }
+
+    @Test
+    public void testInterfaceWithInheritedMethods() throws Exception {
+        // declares no methods of its own, only those of Delayed and Future
+        int flags = read(ScheduledFuture.class);
+        Assert.assertEquals(ClassHeader.PUBLIC | ClassHeader.INTERFACE | ClassHeader.ABSTRACT | ClassHeader.PUBLIC_METHODS, flags);
+        Assert.assertTrue(ClassHeader.isServiceInterface(flags));
+    }
+
+    @Test
+    public void testPackagePrivateClass() throws Exception {
+        int flags = read(Hidden.class);
+        Assert.assertEquals(0, flags & ClassHeader.PUBLIC);
+        Assert.assertFalse(ClassHeader.isPublicType(flags));
+        Assert.assertFalse(ClassHeader.isProxyCandidate(flags));
+    }
+
+    @Test
+    public void testNestedClass() throws Exception {
+        int flags = read(Nested.class);
+        Assert.assertNotEquals(0, flags & ClassHeader.NESTED);
+        Assert.assertNotEquals(0, flags & ClassHeader.PUBLIC_METHODS);
+        Assert.assertFalse(ClassHeader.isProxyCandidate(flags));
+    }
+
+    @Test
+    public void testConstructorsAreNotPublicMethods() throws Exception {
+        Assert.assertEquals(ClassHeader.PUBLIC, read(ConstructorOnly.class) & ~ClassHeader.NESTED);
+    }
+
+    @Test
+    public void testInvalidClassFile() {
+        Assert.assertEquals(0, ClassHeader.read("Invalid", new byte[0]));
+        Assert.assertEquals(0, ClassHeader.read("Invalid", new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0}));
+    }
+
+    private static int read(Class<?> type) throws IOException {
+        return ClassHeader.read(type.getName(), classBytes(type));
+    }
+
+    static byte[] classBytes(Class<?> type) throws IOException {
+        String name = type.getName();
+        try (InputStream in = type.getResourceAsStream("/" + name.replace('.', '/') + ".class")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    static class Hidden {
+        public void run() {
+        }
+    }
+
+    public static class Nested {
+        public void run() {
+        }
+    }
+
+    public static class ConstructorOnly {
+        public ConstructorOnly() {
+        }
+
+        static {
+            System.getProperties();
+        }
+
+        void packagePrivate() {
+        }
+    }
+}
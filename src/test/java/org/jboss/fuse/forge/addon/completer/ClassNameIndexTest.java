@@ -0,0 +1,171 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.completer;
+
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class ClassNameIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Coordinate coordinate = CoordinateBuilder.create("org.example:example-api:1.0");
+
+    private File cacheDir;
+    private File jar;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = temporaryFolder.newFolder("cache");
+        jar = new File(temporaryFolder.getRoot(), "example-api.jar");
+        ShrinkWrap.create(JavaArchive.class)
+            .addAsResource(EmptyAsset.INSTANCE, "org/example/api/ExampleService.class")
+            .addAsResource(EmptyAsset.INSTANCE, "org/example/api/ExampleService$Callback.class")
+            .addAsResource(EmptyAsset.INSTANCE, "org/example/api/model/Example.class")
+            .addAsResource(EmptyAsset.INSTANCE, "org/example/api/example.properties")
+            .as(ZipExporter.class).exportTo(jar, true);
+    }
+
+    @Test
+    public void testClassNamesAreSorted() throws Exception {
+        List<String> classNames = new ClassNameIndex(cacheDir, 2).getClassNames(coordinate, jar);
+        Assert.assertEquals(Arrays.asList("org.example.api.ExampleService", "org.example.api.ExampleService$Callback",
+            "org.example.api.model.Example"), classNames);
+    }
+
+    @Test
+    public void testJarIsScannedOnce() throws Exception {
+        ClassNameIndex index = new ClassNameIndex(cacheDir, 2);
+        Assert.assertSame(index.getClassNames(coordinate, jar), index.getClassNames(coordinate, jar));
+    }
+
+    @Test
+    public void testClassNamesAreReadFromDisk() throws Exception {
+        List<String> classNames = new ClassNameIndex(cacheDir, 2).getClassNames(coordinate, jar);
+        Assert.assertEquals(1, cacheDir.listFiles().length);
+
+        List<String> persisted = new ClassNameIndex(cacheDir, 2).getClassNames(coordinate, jar);
+        Assert.assertNotSame(classNames, persisted);
+        Assert.assertEquals(classNames, persisted);
+    }
+
+    @Test
+    public void testChangedJarIsScannedAgain() throws Exception {
+        new ClassNameIndex(cacheDir, 2).getClassNames(coordinate, jar);
+
+        ShrinkWrap.create(JavaArchive.class)
+            .addAsResource(EmptyAsset.INSTANCE, "org/example/api/OtherService.class")
+            .as(ZipExporter.class).exportTo(jar, true);
+        Assert.assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+
+        Assert.assertEquals(Arrays.asList("org.example.api.OtherService"),
+            new ClassNameIndex(cacheDir, 2).getClassNames(coordinate, jar));
+    }
+
+    @Test
+    public void testTouchedJarRefreshesCachedTimestamp() throws Exception {
+        new ClassNameIndex(cacheDir, 2).getClassNames(coordinate, jar);
+        Assert.assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+        Assert.assertEquals(3, new ClassNameIndex(cacheDir, 2).getClassNames(coordinate, jar).size());
+
+        // the header now records the new timestamp, so the next lookup does not hash the jar
+        try (DataInputStream in = new DataInputStream(new FileInputStream(cacheDir.listFiles()[0]))) {
+            in.readInt();
+            in.readInt();
+            Assert.assertEquals(jar.length(), in.readLong());
+            Assert.assertEquals(jar.lastModified(), in.readLong());
+        }
+    }
+
+    @Test
+    public void testDependencyTreesAreIndexedInBackground() throws Exception {
+        File otherJar = new File(temporaryFolder.getRoot(), "other-api.jar");
+        ShrinkWrap.create(JavaArchive.class)
+            .addAsResource(EmptyAsset.INSTANCE, "org/other/Other.class")
+            .as(ZipExporter.class).exportTo(otherJar, true);
+        Coordinate other = CoordinateBuilder.create("org.other:other-api:2.0");
+
+        // both trees share the example jar, which is only handed over once
+        Map<Coordinate, File> otherTree = new LinkedHashMap<>();
+        otherTree.put(other, otherJar);
+        otherTree.put(coordinate, jar);
+        List<String> classNames = new CopyOnWriteArrayList<>();
+        new ClassNameIndex(cacheDir, 2).index(Arrays.asList(other, coordinate),
+            c -> c == other ? otherTree : Collections.singletonMap(coordinate, jar), flags -> true,
+            classNames::addAll).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(4, classNames.size());
+        Assert.assertTrue(classNames.contains("org.other.Other"));
+        Assert.assertEquals(2, cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void testClassesAreFilteredOnHeader() throws Exception {
+        File proxyJar = new File(temporaryFolder.getRoot(), "proxy.jar");
+        ShrinkWrap.create(JavaArchive.class)
+            .addAsResource(new ByteArrayAsset(ClassHeaderTest.classBytes(Runnable.class)), "java/lang/Runnable.class")
+            .addAsResource(new ByteArrayAsset(ClassHeaderTest.classBytes(ClassHeaderTest.Hidden.class)),
+                "org/example/Hidden.class")
+            .as(ZipExporter.class).exportTo(proxyJar, true);
+
+        ClassNameIndex index = new ClassNameIndex(cacheDir, 2);
+        Coordinate proxies = CoordinateBuilder.create("org.example:proxies:1.0");
+        Assert.assertEquals(Collections.singletonList("java.lang.Runnable"),
+            index.getClassNames(proxies, proxyJar, ClassHeader::isProxyCandidate));
+        Assert.assertEquals(Arrays.asList("java.lang.Runnable", "org.example.Hidden"), index.getClassNames(proxies, proxyJar));
+
+        // flags are persisted with the class names
+        Assert.assertEquals(Collections.singletonList("java.lang.Runnable"),
+            new ClassNameIndex(cacheDir, 2).getClassNames(proxies, proxyJar, ClassHeader::isProxyCandidate));
+    }
+
+    @Test
+    public void testUnresolvableArtifactsAreSkipped() throws Exception {
+        Coordinate missing = CoordinateBuilder.create("org.missing:missing:1.0");
+        List<List<String>> indexed = new CopyOnWriteArrayList<>();
+
+        new ClassNameIndex(cacheDir, 2).index(Arrays.asList(missing, coordinate), c -> {
+            if (c == missing) {
+                throw new IllegalStateException("Unable to resolve " + c);
+            }
+            return Collections.singletonMap(c, jar);
+        }, flags -> true, indexed::add).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, indexed.size());
+        Assert.assertEquals(3, indexed.get(0).size());
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.completer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SortedPrefixIndexTest {
+
+    private final SortedPrefixIndex index = new SortedPrefixIndex(Arrays.asList(
+        "org.example.b.Beta", "org.example.a.Alpha", "org.other.Other", "org.example.a.Alpha", "org.example.a.Alpha$Inner"));
+
+    @Test
+    public void testDuplicatesAreRemoved() {
+        Assert.assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testPrefixMatches() {
+        Assert.assertEquals(Arrays.asList("org.example.a.Alpha", "org.example.a.Alpha$Inner", "org.example.b.Beta"),
+            toList(index.find("org.example", 10)));
+        Assert.assertEquals(Collections.singletonList("org.other.Other"), toList(index.find("org.other.Other", 10)));
+        Assert.assertEquals(Collections.emptyList(), toList(index.find("org.missing", 10)));
+        Assert.assertEquals(Collections.emptyList(), toList(index.find("z", 10)));
+    }
+
+    @Test
+    public void testNullPrefixMatchesAll() {
+        Assert.assertEquals(4, toList(index.find(null, 10)).size());
+    }
+
+    @Test
+    public void testLimit() {
+        Assert.assertEquals(Arrays.asList("org.example.a.Alpha", "org.example.a.Alpha$Inner"), toList(index.find("org.", 2)));
+        Assert.assertEquals(Collections.emptyList(), toList(index.find("org.", 0)));
+    }
+
+    @Test
+    public void testIndexesAreMerged() {
+        SortedPrefixIndex other = new SortedPrefixIndex(Arrays.asList("org.example.a.Aardvark", "org.example.b.Beta", "org.zebra.Zebra"));
+        Assert.assertEquals(Arrays.asList("org.example.a.Aardvark", "org.example.a.Alpha", "org.example.a.Alpha$Inner", "org.example.b.Beta"),
+            toList(SortedPrefixIndex.find(Arrays.asList(index, other), "org.example", 10)));
+        Assert.assertEquals(Arrays.asList("org.example.a.Aardvark", "org.example.a.Alpha"),
+            toList(SortedPrefixIndex.find(Arrays.asList(index, other), null, 2)));
+        Assert.assertEquals(Collections.emptyList(), toList(SortedPrefixIndex.find(Collections.emptyList(), "org", 10)));
+    }
+
+    private static List<String> toList(Iterable<String> values) {
+        List<String> result = new ArrayList<>();
+        values.forEach(result::add);
+        return result;
+    }
+}
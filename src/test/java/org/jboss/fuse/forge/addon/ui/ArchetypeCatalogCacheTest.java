@@ -0,0 +1,77 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+public class ArchetypeCatalogCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File cacheDir;
+    private File catalogJar;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = temporaryFolder.newFolder("cache");
+        catalogJar = new File(temporaryFolder.getRoot(), "archetypes-catalog.jar");
+        ShrinkWrap.create(JavaArchive.class)
+            .addAsResource("archetype-catalog.xml", "archetype-catalog.xml")
+            .as(ZipExporter.class).exportTo(catalogJar, true);
+    }
+
+    @Test
+    public void testCatalogIsParsedOnce() {
+        ArchetypeCatalogCache cache = new ArchetypeCatalogCache(cacheDir);
+        ArchetypeCatalog catalog = cache.getCatalog("1.0.0", () -> catalogJar);
+        Assert.assertNotNull(catalog);
+        Assert.assertEquals(12, catalog.getArchetypes().size());
+
+        Assert.assertSame(catalog, cache.getCatalog("1.0.0", () -> {
+            throw new AssertionError("Catalog jar should not be resolved again");
+        }));
+    }
+
+    @Test
+    public void testCatalogIsReadFromDisk() {
+        ArchetypeCatalog catalog = new ArchetypeCatalogCache(cacheDir).getCatalog("1.0.0", () -> catalogJar);
+        Assert.assertEquals(1, cacheDir.listFiles().length);
+
+        ArchetypeCatalog persisted = new ArchetypeCatalogCache(cacheDir).getCatalog("1.0.0", () -> catalogJar);
+        Assert.assertNotSame(catalog, persisted);
+        Assert.assertEquals(catalog.getArchetypes().size(), persisted.getArchetypes().size());
+        for (int i = 0; i < catalog.getArchetypes().size(); i++) {
+            Assert.assertEquals(catalog.getArchetypes().get(i).getArtifactId(), persisted.getArchetypes().get(i).getArtifactId());
+            Assert.assertEquals(catalog.getArchetypes().get(i).getDescription(), persisted.getArchetypes().get(i).getDescription());
+        }
+    }
+
+    @Test
+    public void testMissingCatalogJar() {
+        Assert.assertNull(new ArchetypeCatalogCache(cacheDir).getCatalog("1.0.0", () -> null));
+    }
+}
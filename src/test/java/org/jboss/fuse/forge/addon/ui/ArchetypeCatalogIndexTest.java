@@ -0,0 +1,67 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.apache.maven.archetype.catalog.Archetype;
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+import org.apache.maven.archetype.catalog.io.xpp3.ArchetypeCatalogXpp3Reader;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.jboss.fuse.forge.addon.ui.FuseProjectCategory.KARAF;
+import static org.jboss.fuse.forge.addon.ui.FuseProjectCategory.SPRING_BOOT;
+
+public class ArchetypeCatalogIndexTest {
+
+    private static ArchetypeCatalogIndex index;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        try (InputStream in = ArchetypeCatalogIndexTest.class.getResourceAsStream("/archetype-catalog.xml")) {
+            ArchetypeCatalog catalog = new ArchetypeCatalogXpp3Reader().read(in);
+            index = new ArchetypeCatalogIndex(catalog);
+        }
+    }
+
+    @Test
+    public void testInvalidGroupIdsAreExcluded() {
+        Assert.assertEquals(12, index.getArchetypes().size());
+        Assert.assertEquals(12, index.getArchetypes("").size());
+    }
+
+    @Test
+    public void testArchetypesByProjectType() {
+        List<Archetype> karaf = index.getArchetypes(KARAF.getName());
+        Assert.assertEquals(6, karaf.size());
+        for (Archetype archetype : karaf) {
+            Assert.assertTrue(archetype.getArtifactId().startsWith(KARAF.getArtifactIdPrefix()));
+        }
+        Assert.assertEquals(6, index.getArchetypes(SPRING_BOOT.getName()).size());
+        Assert.assertTrue(index.getArchetypes("unknown").isEmpty());
+    }
+
+    @Test
+    public void testGroupIdMatchesBuild() {
+        Assert.assertTrue(ArchetypeCatalogIndex.isValidGroupId(ArchetypeCatalogIndex.REDHAT_ARCHETYPES_GROUP_ID, "1.0.0.redhat-000001"));
+        Assert.assertFalse(ArchetypeCatalogIndex.isValidGroupId(ArchetypeCatalogIndex.COMMUNITY_ARCHETYPES_GROUP_ID, "1.0.0.redhat-000001"));
+        Assert.assertTrue(ArchetypeCatalogIndex.isValidGroupId(ArchetypeCatalogIndex.COMMUNITY_ARCHETYPES_GROUP_ID, "1.0.0"));
+        Assert.assertFalse(ArchetypeCatalogIndex.isValidGroupId("org.invalid", "1.0.0"));
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.apache.maven.archetype.catalog.Archetype;
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+import org.apache.maven.archetype.catalog.io.xpp3.ArchetypeCatalogXpp3Reader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.jboss.fuse.forge.addon.ui.FuseProjectCategory.KARAF;
+
+public class ArchetypeCatalogStaxReaderTest {
+
+    @Test
+    public void testReadsSameArchetypesAsXpp3Reader() throws Exception {
+        ArchetypeCatalog expected;
+        try (InputStream in = getClass().getResourceAsStream("/archetype-catalog.xml")) {
+            expected = new ArchetypeCatalogXpp3Reader().read(in);
+        }
+
+        ArchetypeCatalog catalog = read((groupId, artifactId, version) -> true);
+        Assert.assertEquals(expected.getArchetypes().size(), catalog.getArchetypes().size());
+        for (int i = 0; i < expected.getArchetypes().size(); i++) {
+            Archetype expectedArchetype = expected.getArchetypes().get(i);
+            Archetype archetype = catalog.getArchetypes().get(i);
+            Assert.assertEquals(expectedArchetype.getGroupId(), archetype.getGroupId());
+            Assert.assertEquals(expectedArchetype.getArtifactId(), archetype.getArtifactId());
+            Assert.assertEquals(expectedArchetype.getVersion(), archetype.getVersion());
+            Assert.assertEquals(expectedArchetype.getDescription(), archetype.getDescription());
+        }
+    }
+
+    @Test
+    public void testFiltersWhileParsing() throws Exception {
+        List<Archetype> archetypes = read((groupId, artifactId, version) ->
+            KARAF.matches(artifactId) && ArchetypeCatalogIndex.isValidGroupId(groupId, version)).getArchetypes();
+        Assert.assertEquals(6, archetypes.size());
+        for (Archetype archetype : archetypes) {
+            Assert.assertTrue(archetype.getArtifactId().startsWith(KARAF.getArtifactIdPrefix()));
+            Assert.assertNotEquals("org.invalid", archetype.getGroupId());
+        }
+    }
+
+    private ArchetypeCatalog read(ArchetypeCatalogStaxReader.ArchetypeFilter filter) throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/archetype-catalog.xml")) {
+            return new ArchetypeCatalogStaxReader(filter).read(in);
+        }
+    }
+}
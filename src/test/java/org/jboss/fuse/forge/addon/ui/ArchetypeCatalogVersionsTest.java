@@ -0,0 +1,77 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.DependencyQuery;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+public class ArchetypeCatalogVersionsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testVersionsAreResolvedAndPersisted() throws Exception {
+        File versionsFile = new File(temporaryFolder.getRoot(), "versions.txt");
+
+        ArchetypeCatalogVersions versions = new ArchetypeCatalogVersions(versionsFile);
+        Assert.assertTrue(versions.getVersions().isEmpty());
+        Assert.assertEquals(Collections.singletonList("1.0.0"), versions.getVersions(versions.refresh(new MockCatalogDependencyResolver())));
+        Assert.assertTrue(versionsFile.isFile());
+
+        ArchetypeCatalogVersions lastKnown = new ArchetypeCatalogVersions(versionsFile);
+        Assert.assertEquals(Collections.singletonList("1.0.0"), lastKnown.getVersions());
+        Assert.assertTrue(lastKnown.isKnownVersion("1.0.0"));
+        Assert.assertFalse(lastKnown.isKnownVersion("2.0.0"));
+    }
+
+    @Test
+    public void testUnknownVersionDoesNotWaitForRefresh() throws Exception {
+        File versionsFile = new File(temporaryFolder.getRoot(), "versions.txt");
+        CountDownLatch resolving = new CountDownLatch(1);
+
+        ArchetypeCatalogVersions versions = new ArchetypeCatalogVersions(versionsFile);
+        CompletableFuture<List<String>> refresh = versions.refresh(new MockCatalogDependencyResolver() {
+            @Override
+            public List<Coordinate> resolveVersions(DependencyQuery dependencyQuery) {
+                try {
+                    resolving.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.resolveVersions(dependencyQuery);
+            }
+        });
+
+        Assert.assertTrue(versions.isRefreshing());
+        Assert.assertFalse(versions.isKnownVersion("1.0.0"));
+
+        resolving.countDown();
+        refresh.join();
+        Assert.assertFalse(versions.isRefreshing());
+        Assert.assertTrue(versions.isKnownVersion("1.0.0"));
+    }
+}
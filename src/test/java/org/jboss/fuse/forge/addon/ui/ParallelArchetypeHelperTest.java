@@ -0,0 +1,95 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ParallelArchetypeHelperTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testExpandsLikeArchetypeHelper() throws Exception {
+        File archetypeJar = temporaryFolder.newFile("archetype.jar");
+        JavaArchive archive = ShrinkWrap.create(JavaArchive.class)
+            .add(new StringAsset("<archetype-descriptor xmlns=\"http://maven.apache.org/plugins/maven-archetype-plugin/archetype-descriptor/1.0.0\">"
+                + "<requiredProperties>"
+                + "<requiredProperty key=\"greeting\"><defaultValue>hello</defaultValue></requiredProperty>"
+                + "</requiredProperties></archetype-descriptor>"), "META-INF/maven/archetype-metadata.xml")
+            .add(new StringAsset("#set( $H = '##' )\n<project>\n  <artifactId>${artifactId}</artifactId>\n"
+                + "  <name>${D}{project.name} ${greeting}</name>\n</project>\n"), "archetype-resources/pom.xml");
+        for (int i = 0; i < 20; i++) {
+            archive.add(new StringAsset("package ${package};\n\n// ${H} ${greeting}\npublic class Type" + i + " {\n}\n"),
+                "archetype-resources/src/main/java/Type" + i + ".java");
+        }
+        archive.as(ZipExporter.class).exportTo(archetypeJar, true);
+
+        File expected = temporaryFolder.newFolder("expected");
+        try (InputStream in = new FileInputStream(archetypeJar)) {
+            org.jboss.forge.addon.maven.projects.archetype.ArchetypeHelper helper =
+                new org.jboss.forge.addon.maven.projects.archetype.ArchetypeHelper(in, expected, "org.example", "demo", "1.0") {
+                @Override
+                protected String removeInvalidHeaderCommentsAndProcessVelocityMacros(String text) {
+                    return VelocityMacroPreprocessor.process(text);
+                }
+            };
+            helper.setPackageName("org.example.demo");
+            helper.execute();
+        }
+
+        File actual = temporaryFolder.newFolder("actual");
+        ParallelArchetypeHelper helper = new ParallelArchetypeHelper(archetypeJar, actual, "org.example", "demo", "1.0", 4);
+        helper.setPackageName("org.example.demo");
+        helper.execute();
+
+        Assert.assertEquals(21, helper.getFileCount());
+        List<Path> files = listFiles(expected);
+        Assert.assertEquals(files, listFiles(actual));
+        for (Path file : files) {
+            Assert.assertEquals(new String(Files.readAllBytes(expected.toPath().resolve(file))),
+                new String(Files.readAllBytes(actual.toPath().resolve(file))));
+        }
+        Assert.assertTrue(new String(Files.readAllBytes(actual.toPath().resolve("src/main/java/org/example/demo/Type0.java")))
+            .contains("// ## hello"));
+    }
+
+    private static List<Path> listFiles(File dir) throws Exception {
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            return paths.filter(Files::isRegularFile)
+                .map(p -> dir.toPath().relativize(p))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.ui;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VelocityMacroPreprocessorTest {
+
+    private static final String[] TEMPLATES = {
+        "",
+        "\n",
+        "a",
+        "a\n\n",
+        "a\r\n\r\nb\r\n",
+        "#set( $H = '##' )\n#set( $D = '$' )\n<project>\n  ## comment\n  <name>${D}{project.name}</name>\n</project>\n",
+        "  \t#set($x = 1)\n${H} header ${H}\n\n##\n\nlast\n\n\n",
+        "cost is ${D}5 and ${D} and ${X} and ${D\n$\n${",
+        "   \nkeep whitespace lines\n   \n",
+        "a\n\n##x",
+        "a\n\n#set($x=1)\n",
+        "a\n\n  ## c\n",
+        "a\n\n##x\n\nb\n\n##y\n\n",
+    };
+
+    @Test
+    public void testMatchesLineByLineProcessing() {
+        for (String template : TEMPLATES) {
+            Assert.assertEquals(template, legacyProcess(template), VelocityMacroPreprocessor.process(template));
+        }
+    }
+
+    @Test
+    public void testKeepsEmptyLinesBeforeDroppedLines() {
+        Assert.assertEquals("a\n\n", VelocityMacroPreprocessor.process("a\n\n##x"));
+        Assert.assertEquals("a\n\n", VelocityMacroPreprocessor.process("a\n\n#set($x=1)\n"));
+        Assert.assertEquals("a\n\n", VelocityMacroPreprocessor.process("a\n\n  ## c\n"));
+    }
+
+    @Test
+    public void testExpandsMacros() {
+        Assert.assertEquals("${project.version} ## $\n",
+            VelocityMacroPreprocessor.process("#set( $H = '##' )\n${D}{project.version} ${H} ${D}"));
+    }
+
+    // the line by line implementation this preprocessor replaces
+    private static String legacyProcess(String text) {
+        String answer = "";
+        for (String line : text.split("\r?\n")) {
+            String l = line.trim();
+            if (l.startsWith("##") || l.startsWith("#set(")) {
+                continue;
+            }
+            if (line.contains("${D}")) {
+                line = line.replaceAll("\\$\\{D\\}", "\\$");
+            }
+            if (line.contains("${H}")) {
+                line = line.replaceAll("\\$\\{H\\}", "##");
+            }
+            answer = answer + line + "\n";
+        }
+        return answer;
+    }
+}
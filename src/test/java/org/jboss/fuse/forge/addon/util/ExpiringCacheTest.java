@@ -0,0 +1,76 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ExpiringCache<String, String> cache = new ExpiringCache<>(2, 100, now::get);
+
+    @Test
+    public void testValueIsLoadedOnce() {
+        Assert.assertEquals("a1", get("a"));
+        Assert.assertEquals("a1", get("a"));
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testValueExpires() {
+        get("a");
+        now.set(99);
+        Assert.assertEquals("a1", get("a"));
+        now.set(100);
+        Assert.assertEquals("a2", get("a"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        get("a");
+        get("b");
+        get("a");
+        get("c");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("a1", get("a"));
+        Assert.assertEquals("b4", get("b"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        get("a");
+        get("b");
+        cache.invalidate("a");
+        Assert.assertEquals("a3", get("a"));
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRejectedValuesAreNotCached() {
+        Assert.assertEquals("a1", cache.get("a", key -> key + loads.incrementAndGet(), value -> false));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private String get(String key) {
+        return cache.get(key, k -> k + loads.incrementAndGet(), value -> true);
+    }
+}
@@ -1,10 +1,47 @@
 package org.jboss.fuse.forge.addon.util;
 
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.Dependency;
+import org.jboss.forge.addon.dependencies.DependencyMetadata;
+import org.jboss.forge.addon.dependencies.DependencyNode;
+import org.jboss.forge.addon.dependencies.DependencyQuery;
+import org.jboss.forge.addon.dependencies.DependencyResolver;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class MavenUtilsTest {
 
+    @Test
+    public void testResolvedVersionsAreShared() {
+        CountingResolver resolver = new CountingResolver("1.0.0", "1.1.0.redhat-000001", "1.2.0");
+        Coordinate coordinate = MavenUtils.createCoordinate("org.example.cached", "cached");
+
+        Assert.assertEquals(Arrays.asList("1.0.0", "1.1.0.redhat-000001", "1.2.0"), MavenUtils.resolveVersions(resolver, coordinate));
+        Assert.assertEquals("1.2.0", MavenUtils.resolveLatestVersion(resolver, coordinate));
+        Assert.assertEquals("1.1.0.redhat-000001", MavenUtils.resolveLatestRedhatVersion(resolver, coordinate));
+        Assert.assertEquals(1, resolver.queries.get());
+
+        MavenUtils.invalidateVersions(coordinate);
+        MavenUtils.resolveLatestVersion(resolver, coordinate);
+        Assert.assertEquals(2, resolver.queries.get());
+    }
+
+    @Test
+    public void testEmptyResolutionIsNotCached() {
+        CountingResolver resolver = new CountingResolver();
+        Coordinate coordinate = MavenUtils.createCoordinate("org.example.cached", "missing");
+
+        Assert.assertEquals("", MavenUtils.resolveLatestVersion(resolver, coordinate));
+        Assert.assertEquals("", MavenUtils.resolveLatestRedhatVersion(resolver, coordinate));
+        Assert.assertEquals(2, resolver.queries.get());
+    }
+
     @Test
     public void testIsRedhatVersionMatchesSuffix() {
         Assert.assertTrue(MavenUtils.isRedhatVersion("1.0.0.redhat-00001"));
@@ -24,4 +61,45 @@ public class MavenUtilsTest {
     public void testIsRedhatVersionDoesNotMatchAbsentSuffix() {
         Assert.assertFalse(MavenUtils.isRedhatVersion("1.0.0"));
     }
+
+    private static final class CountingResolver implements DependencyResolver {
+
+        private final AtomicInteger queries = new AtomicInteger();
+        private final String[] versions;
+
+        private CountingResolver(String... versions) {
+            this.versions = versions;
+        }
+
+        @Override
+        public List<Coordinate> resolveVersions(DependencyQuery query) {
+            queries.incrementAndGet();
+            List<Coordinate> coordinates = new ArrayList<>();
+            for (String version : versions) {
+                Coordinate coordinate = query.getCoordinate();
+                coordinates.add(MavenUtils.createCoordinate(coordinate.getGroupId(), coordinate.getArtifactId(), version, null));
+            }
+            return coordinates;
+        }
+
+        @Override
+        public Dependency resolveArtifact(DependencyQuery query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<Dependency> resolveDependencies(DependencyQuery query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DependencyNode resolveDependencyHierarchy(DependencyQuery query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DependencyMetadata resolveDependencyMetadata(DependencyQuery query) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
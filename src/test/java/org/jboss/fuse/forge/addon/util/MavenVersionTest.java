@@ -0,0 +1,111 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class MavenVersionTest {
+
+    @Test
+    public void testRedhatVersion() {
+        MavenVersion version = MavenVersion.of("2.2.0.redhat-079");
+        Assert.assertEquals(3, version.getComponentCount());
+        Assert.assertEquals(2, version.getComponent(0));
+        Assert.assertEquals(2, version.getComponent(1));
+        Assert.assertEquals(0, version.getComponent(2));
+        Assert.assertEquals(0, version.getComponent(3));
+        Assert.assertEquals("redhat-079", version.getQualifier());
+        Assert.assertTrue(version.isRedhat());
+    }
+
+    @Test
+    public void testFuseVersion() {
+        MavenVersion version = MavenVersion.of("2.17.0.fuse-710018");
+        Assert.assertEquals("fuse-710018", version.getQualifier());
+        Assert.assertTrue(version.isRedhat());
+    }
+
+    @Test
+    public void testCommunityVersions() {
+        MavenVersion release = MavenVersion.of("2.18.1");
+        Assert.assertEquals(3, release.getComponentCount());
+        Assert.assertEquals("", release.getQualifier());
+        Assert.assertFalse(release.isRedhat());
+
+        MavenVersion milestone = MavenVersion.of("3.0.0-M1");
+        Assert.assertEquals(3, milestone.getComponentCount());
+        Assert.assertEquals("M1", milestone.getQualifier());
+
+        MavenVersion named = MavenVersion.of("1.0.0.Final");
+        Assert.assertEquals("Final", named.getQualifier());
+
+        Assert.assertFalse(MavenVersion.of("1.0.0.redhatish-1").isRedhat());
+        Assert.assertFalse(MavenVersion.of("1.0.0-redhat-1").isRedhat());
+    }
+
+    @Test
+    public void testNonNumericVersion() {
+        MavenVersion version = MavenVersion.of("RELEASE");
+        Assert.assertEquals(0, version.getComponentCount());
+        Assert.assertEquals("RELEASE", version.getQualifier());
+    }
+
+    @Test
+    public void testVersionsAreShared() {
+        Assert.assertSame(MavenVersion.of("1.2.3"), MavenVersion.of(new String("1.2.3")));
+    }
+
+    @Test
+    public void testOrdering() {
+        List<String> expected = Arrays.asList("1.0.0-alpha-1", "1.0.0-beta-2", "1.0.0-M1", "1.0.0-M2", "1.0.0-RC1",
+            "1.0.0-SNAPSHOT", "1.0.0", "1.0.0.sp1", "1.0.0.fuse-000001", "1.0.0.redhat-079", "1.0.0.redhat-100",
+            "1.0.1", "1.2", "1.10.0", "2.0.0.redhat-000001");
+
+        List<MavenVersion> versions = new ArrayList<>();
+        for (String version : expected) {
+            versions.add(MavenVersion.of(version));
+        }
+        Collections.shuffle(versions);
+        Collections.sort(versions);
+
+        List<String> sorted = new ArrayList<>();
+        for (MavenVersion version : versions) {
+            sorted.add(version.getVersion());
+        }
+        Assert.assertEquals(expected, sorted);
+    }
+
+    @Test
+    public void testEquivalentVersions() {
+        Assert.assertEquals(0, MavenVersion.of("1.0").compareTo(MavenVersion.of("1.0.0")));
+        Assert.assertEquals(0, MavenVersion.of("1.0.0.Final").compareTo(MavenVersion.of("1.0.0")));
+        Assert.assertEquals(0, MavenVersion.of("1.0.0.redhat-079").compareTo(MavenVersion.of("1.0.0.redhat-79")));
+    }
+
+    @Test
+    public void testReleaseQualifierBuilds() {
+        Assert.assertTrue(MavenVersion.of("1.0.0.Final-redhat-1").compareTo(MavenVersion.of("1.0.0.Final-redhat-2")) < 0);
+        Assert.assertTrue(MavenVersion.of("1.0.0.Final-redhat-2").compareTo(MavenVersion.of("1.0.0.Final-redhat-1")) > 0);
+        Assert.assertTrue(MavenVersion.of("1.0.0").compareTo(MavenVersion.of("1.0.0.Final-redhat-1")) < 0);
+        Assert.assertTrue(MavenVersion.of("1.0.0.Final-redhat-1").compareTo(MavenVersion.of("1.0.0")) > 0);
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RegexOptimizerTest {
+
+    @Test
+    public void testLiteralsAreFactored() {
+        Assert.assertEquals("getPe(?:ople|rson)|setPerson", RegexOptimizer.merge("getPeople|getPerson", "setPerson"));
+        Assert.assertEquals("get(?:All)?", RegexOptimizer.merge("get", "getAll"));
+        Assert.assertEquals("foo[ab]", RegexOptimizer.merge("(fooa)|(foob)", null));
+        Assert.assertEquals("com\\.example\\.(?:api|internal)", RegexOptimizer.merge("com\\.example\\.api", "com\\.example\\.internal"));
+    }
+
+    @Test
+    public void testAppendedGroupsAreFlattened() {
+        // the shape produced by appending, with a duplicate
+        Assert.assertEquals("secret|^.*Id$|^.*Key$",
+            RegexOptimizer.merge("(secret)|(^.*Id$)", "(^.*Key$)|(secret)"));
+        // the order of the alternatives is kept
+        Assert.assertEquals("a+b|c", RegexOptimizer.merge("(?:a+b)", "((c))"));
+        Assert.assertEquals("ab?|x.*|c[de]", RegexOptimizer.merge("a|ab|x.*", "cd|ce"));
+    }
+
+    @Test
+    public void testInlineFlagsAreKeptWhole() {
+        String merged = RegexOptimizer.merge("(?i)abc|xyz", "q");
+        Assert.assertEquals("(?:(?i)abc|xyz)|(?:q)", merged);
+        Pattern pattern = Pattern.compile(merged);
+        Assert.assertTrue(pattern.matcher("XYZ").matches());
+        Assert.assertTrue(pattern.matcher("ABC").matches());
+        Assert.assertTrue(pattern.matcher("q").matches());
+        Assert.assertFalse(pattern.matcher("Q").matches());
+
+        Assert.assertEquals("(?i)abc", RegexOptimizer.merge(null, "(?i)abc"));
+        Assert.assertEquals("(?:(?!internal)\\w+)|(?:a)", RegexOptimizer.merge("(?!internal)\\w+", "a"));
+        // escaped or in a class, a question mark after a parenthesis is no special group
+        Assert.assertEquals("a\\(?|[(?]|b", RegexOptimizer.merge("a\\(?|[(?]", "b"));
+    }
+
+    @Test
+    public void testMergedMatchesTheSameStrings() {
+        String[] regexes = {"getPeople", "getPerson", "get", "get.*Id", "set[A-Z]\\w*", "list", "listAll", "\\$value"};
+        String merged = null;
+        for (String regex : regexes) {
+            merged = RegexOptimizer.merge(merged, regex);
+        }
+        Pattern pattern = Pattern.compile(merged);
+        String[] inputs = {"getPeople", "getPerson", "get", "getPe", "getUserId", "setName", "set", "list", "listAll",
+            "listAl", "$value", "value", ""};
+        for (String input : inputs) {
+            boolean expected = false;
+            for (String regex : regexes) {
+                expected |= input.matches(regex);
+            }
+            Assert.assertEquals(merged + " on " + input, expected, pattern.matcher(input).matches());
+        }
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testInvalidRegex() {
+        RegexOptimizer.merge("valid", "(unclosed");
+    }
+
+    @Test
+    public void testBacktrackingRisks() {
+        Assert.assertEquals(Arrays.asList("nested repetition (a+)+"), RegexOptimizer.findBacktrackingRisks("^(a+)+$"));
+        Assert.assertEquals(1, RegexOptimizer.findBacktrackingRisks("(\\w+\\s?)*x").size());
+        Assert.assertEquals(1, RegexOptimizer.findBacktrackingRisks("((a*)b)*").size());
+        Assert.assertEquals(Arrays.asList("repeated overlapping alternatives (a|ab)*"), RegexOptimizer.findBacktrackingRisks("(a|ab)*c"));
+
+        Assert.assertTrue(RegexOptimizer.findBacktrackingRisks("get(a+)?|(ab)+|[(a+)]*|(a|b)*").isEmpty());
+        Assert.assertTrue(RegexOptimizer.findBacktrackingRisks("\\(a+\\)+").isEmpty());
+    }
+
+    @Test
+    public void testSeparatedRepetitionsAreNoRisk() {
+        // each repeat ends at a literal the inner repetition cannot match
+        Assert.assertTrue(RegexOptimizer.findBacktrackingRisks("([a-z]+\\.)*internal\\..*").isEmpty());
+        Assert.assertTrue(RegexOptimizer.findBacktrackingRisks("^(\\w+,)+$").isEmpty());
+        Assert.assertTrue(RegexOptimizer.findBacktrackingRisks("(?:a+b)*").isEmpty());
+
+        // optional separators and separators the repetition matches still are
+        Assert.assertEquals(1, RegexOptimizer.findBacktrackingRisks("([a-z]+\\.?)*x").size());
+        Assert.assertEquals(1, RegexOptimizer.findBacktrackingRisks("([a-z.]+\\.)*x").size());
+        Assert.assertEquals(1, RegexOptimizer.findBacktrackingRisks("(.+\\.)*x").size());
+    }
+}
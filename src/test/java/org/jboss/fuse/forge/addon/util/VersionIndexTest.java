@@ -0,0 +1,63 @@
+/**
+ *  Copyright 2005-2016 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package org.jboss.fuse.forge.addon.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class VersionIndexTest {
+
+    private final VersionIndex index = new VersionIndex(Arrays.asList(
+        "2.0.0.redhat-000002", "1.0.0", "2.1.0", "2.0.0.redhat-000010", "1.1.0.redhat-000001", "3.0.0-M1", "1.10.0"));
+
+    @Test
+    public void testVersionsAreSorted() {
+        Assert.assertEquals(Arrays.asList("1.0.0", "1.1.0.redhat-000001", "1.10.0", "2.0.0.redhat-000002",
+            "2.0.0.redhat-000010", "2.1.0", "3.0.0-M1"), index.getVersions());
+    }
+
+    @Test
+    public void testLatest() {
+        Assert.assertEquals("3.0.0-M1", index.getLatest());
+        Assert.assertEquals("2.0.0.redhat-000010", index.getLatestRedhat());
+    }
+
+    @Test
+    public void testLatestInMajorLine() {
+        Assert.assertEquals("1.10.0", index.getLatest(1));
+        Assert.assertEquals("2.1.0", index.getLatest(2));
+        Assert.assertEquals("3.0.0-M1", index.getLatest(3));
+        Assert.assertNull(index.getLatest(0));
+        Assert.assertNull(index.getLatest(4));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        VersionIndex empty = new VersionIndex(Collections.emptyList());
+        Assert.assertTrue(empty.isEmpty());
+        Assert.assertNull(empty.getLatest());
+        Assert.assertNull(empty.getLatestRedhat());
+        Assert.assertNull(empty.getLatest(1));
+    }
+
+    @Test
+    public void testNoRedhatVersions() {
+        Assert.assertNull(new VersionIndex(Arrays.asList("1.0.0", "1.0.1")).getLatestRedhat());
+    }
+}